@@ -1,6 +1,7 @@
 
 import React, { useState, useEffect } from 'react';
 import axios from 'axios';
+import { openEventStream } from '../services/eventStream';
 // Lucide icons
 import {
     Users,
@@ -79,6 +80,8 @@ const AdminDashboard = () => {
     });
 
     useEffect(() => {
+        const token = localStorage.getItem("token");
+
         const fetchDashboardStats = async () => {
             try {
                 const response = await axios.get("/api/dashboard/stats", {
@@ -93,12 +96,29 @@ const AdminDashboard = () => {
         };
 
         fetchDashboardStats();
+
+        if (!token) {
+            console.error("No token found. Please log in.");
+            return;
+        }
+
+        // Live counter updates pushed by the server instead of re-polling /api/dashboard/stats
+        return openEventStream(token, {
+            counters: (e) => {
+                const counters = JSON.parse(e.data);
+                setDashboardStats(prev => ({ ...prev, ...counters }));
+            }
+        });
     }, []);
 
 
     const [farmers, setFarmers] = useState([]);
+    // /api/farmers is paged; further pages are appended by "Load more farmers"
+    const FARMERS_PAGE_SIZE = 50;
+    const [farmersPage, setFarmersPage] = useState(0);
+    const [hasMoreFarmers, setHasMoreFarmers] = useState(false);
 
-    const fetchFarmers = async () => {
+    const fetchFarmers = async (page = 0) => {
         try {
             const token = localStorage.getItem("token");
 
@@ -107,7 +127,7 @@ const AdminDashboard = () => {
                 return;
             }
 
-            const response = await fetch("http://localhost:8080/api/farmers", {
+            const response = await fetch(`http://localhost:8080/api/farmers?page=${page}&size=${FARMERS_PAGE_SIZE}`, {
                 headers: {
                     "Authorization": `Bearer ${token}`,
                     "Content-Type": "application/json"
@@ -122,14 +142,18 @@ const AdminDashboard = () => {
             const result = await response.json();
 
             if (result && result.success && Array.isArray(result.data)) {
-                setFarmers(result.data);
+                setFarmers(prev => page === 0 ? result.data : [...prev, ...result.data]);
+                setFarmersPage(page);
+                setHasMoreFarmers(result.data.length === FARMERS_PAGE_SIZE);
             } else {
                 console.warn("Unexpected response format or no farmers found.");
-                setFarmers([]);
+                if (page === 0) setFarmers([]);
+                setHasMoreFarmers(false);
             }
         } catch (error) {
             console.error("Error fetching farmers:", error.message || error);
-            setFarmers([]); // fallback to empty list on error
+            if (page === 0) setFarmers([]); // fallback to empty list on error
+            setHasMoreFarmers(false);
         }
     };
     useEffect(() => {
@@ -1109,6 +1133,17 @@ const AdminDashboard = () => {
                                 )}
                             </div>
 
+                            {hasMoreFarmers && (
+                                <div className="flex justify-center mt-6">
+                                    <button
+                                        onClick={() => fetchFarmers(farmersPage + 1)}
+                                        className="px-4 py-2 bg-green-600 text-white rounded-lg hover:bg-green-700"
+                                    >
+                                        Load more farmers
+                                    </button>
+                                </div>
+                            )}
+
                         </div>
                     </div>
                 )}
@@ -5,6 +5,7 @@ import {
   Activity, PieChart, Filter, Search, X
 } from 'lucide-react';
 import AddAnimalModal from '../components/AddAnimalModal.jsx';
+import { openEventStream } from '../services/eventStream';
 
 function Dashboard({ user, onLogout }) {
   const [activeTab, setActiveTab] = useState('overview');
@@ -63,6 +64,24 @@ function Dashboard({ user, onLogout }) {
     initializeData();
   }, []);
 
+  // Health status changes to this farmer's animals are pushed over SSE instead of re-fetching the herd
+  useEffect(() => {
+    const token = user?.accessToken || localStorage.getItem('token');
+    if (!token) return;
+
+    return openEventStream(token, {
+      'livestock-status': (e) => {
+        const change = JSON.parse(e.data);
+        setLivestockData(prev => ({
+          ...prev,
+          animals: prev.animals.map(animal => animal.livestockId === change.livestockId
+              ? { ...animal, healthStatus: change.currentStatus }
+              : animal)
+        }));
+      }
+    });
+  }, []);
+
   // Initialize all data on component mount
   const initializeData = async () => {
     await Promise.all([
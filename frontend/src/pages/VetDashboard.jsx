@@ -2,6 +2,7 @@ import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import AddHealthRecord from './AddHealthRecord';
 import axios from "axios";
+import { openEventStream } from "../services/eventStream";
 import {
     Bell, Activity, Calendar, Users, AlertTriangle, FileText, Pill,
     Thermometer, Heart, MapPin, Clock, Search, Filter, Plus, TrendingUp,
@@ -229,28 +230,42 @@ const VetDashboard = () => {
     const [loading, setLoading] = useState(false);
 
     const [healthRecords, setHealthRecords] = useState([]);
+    // Cursor of the next (older) page of /api/health-records/feed; null once everything is loaded
+    const [nextCursor, setNextCursor] = useState(null);
     const token = localStorage.getItem('token');
 
-    useEffect(() => {
-        const fetchRecords = async () => {
-            try {
-                const res = await fetch("http://localhost:8080/api/health-records", {
-                    headers: {
-                        Authorization: `Bearer ${token}`,
-                    },
-                });
-                const data = await res.json();
-                if (data.success) {
-                    setHealthRecords(data.data); // Assuming ApiResponse returns data
-                } else {
-                    console.error("Failed to fetch health records:", data.message);
-                }
-            } catch (err) {
-                console.error("Error fetching health records:", err);
+    const fetchRecords = async (cursor = null) => {
+        try {
+            const query = cursor ? `?size=50&cursor=${encodeURIComponent(cursor)}` : "?size=50";
+            const res = await fetch(`http://localhost:8080/api/health-records/feed${query}`, {
+                headers: {
+                    Authorization: `Bearer ${token}`,
+                },
+            });
+            const data = await res.json();
+            if (data.success) {
+                const page = data.data; // CursorPageDto: items, nextCursor, hasNext
+                setHealthRecords(prev => cursor ? [...prev, ...page.items] : page.items);
+                setNextCursor(page.hasNext ? page.nextCursor : null);
+            } else {
+                console.error("Failed to fetch health records:", data.message);
             }
-        };
+        } catch (err) {
+            console.error("Error fetching health records:", err);
+        }
+    };
 
+    useEffect(() => {
         fetchRecords();
+
+        // New health records are pushed over SSE
+        if (!token) return;
+        return openEventStream(token, {
+            "health-record": (e) => {
+                const record = JSON.parse(e.data);
+                setHealthRecords(prev => [record, ...prev]);
+            }
+        });
     }, [token]);
 
     // Appointments state (demo data)
@@ -504,6 +519,17 @@ const VetDashboard = () => {
                                 <HealthRecordCard key={record.id} record={record} />
                             ))}
                         </div>
+
+                        {nextCursor && (
+                            <div className="flex justify-center">
+                                <button
+                                    className="px-4 py-2 border border-gray-300 rounded-lg text-gray-700 hover:bg-gray-50"
+                                    onClick={() => fetchRecords(nextCursor)}
+                                >
+                                    Load older records
+                                </button>
+                            </div>
+                        )}
                     </div>
                 )}
 
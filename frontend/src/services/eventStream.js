@@ -0,0 +1,58 @@
+const BASE_URL = "http://localhost:8080/api/events";
+const RECONNECT_DELAY = 3000; // 3 seconds
+
+/**
+ * Opens the dashboard event stream. EventSource cannot send the Authorization header, so each
+ * connection first trades the access token for a single-use ticket and puts only that in the URL.
+ * A ticket cannot be replayed, so on any error the stream is reopened with a fresh one instead of
+ * letting the browser retry the old URL.
+ *
+ * listeners maps event names to handlers, e.g. { counters: (e) => ... }.
+ * Returns a function that closes the stream for good (use it as the effect cleanup).
+ */
+export const openEventStream = (token, listeners) => {
+  let events = null;
+  let retryTimer = null;
+  let closed = false;
+
+  const scheduleReconnect = () => {
+    if (!closed) retryTimer = setTimeout(connect, RECONNECT_DELAY);
+  };
+
+  const connect = async () => {
+    try {
+      const response = await fetch(`${BASE_URL}/ticket`, {
+        method: "POST",
+        headers: { Authorization: `Bearer ${token}` }
+      });
+      // The access token itself was refused: retrying with it cannot succeed
+      if (response.status === 401 || response.status === 403) {
+        console.warn("Event stream ticket refused, not reconnecting");
+        return;
+      }
+      if (!response.ok) throw new Error(`Ticket request failed with status ${response.status}`);
+      const ticket = (await response.json())?.data?.ticket;
+      if (closed || !ticket) return;
+
+      events = new EventSource(`${BASE_URL}/stream?ticket=${encodeURIComponent(ticket)}`);
+      Object.entries(listeners).forEach(([name, handler]) => events.addEventListener(name, handler));
+      events.onerror = () => {
+        events.close();
+        scheduleReconnect();
+      };
+    } catch (error) {
+      console.warn("Event stream unavailable, retrying:", error.message);
+      scheduleReconnect();
+    }
+  };
+
+  connect();
+
+  return () => {
+    closed = true;
+    clearTimeout(retryTimer);
+    if (events) events.close();
+  };
+};
+
+export default openEventStream;
@@ -1,6 +1,7 @@
 package com.farmtech.livestock.config;
 
 import com.farmtech.livestock.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +34,8 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
                 .authorizeHttpRequests(auth -> auth
+                        // Async (SSE) and error re-dispatches were already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
 
@@ -42,6 +45,11 @@ public class SecurityConfig {
                                 .requestMatchers("/api/livestock/create").hasAnyAuthority("FARMER", "ADMIN")
 
                         .requestMatchers("/api/livestock/**").hasAnyAuthority("FARMER", "ADMIN")
+                        // Marketplace: anyone signed in can browse, only sellers manage listings
+                        .requestMatchers(HttpMethod.GET, "/api/listings/mine").hasAnyAuthority("FARMER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/listings/**").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/listings/*/contact", "/api/listings/*/bids").authenticated()
+                        .requestMatchers("/api/listings/**").hasAnyAuthority("FARMER", "ADMIN")
                         .requestMatchers("/api/categories/**").hasAnyAuthority("FARMER", "ADMIN")
                         .requestMatchers("/api/health-records/**").hasAnyAuthority("VETERINARIAN", "ADMIN")
                                 .requestMatchers(HttpMethod.GET, "/api/health-records/**").hasAnyAuthority("VETERINARIAN", "ADMIN", "FARMER")
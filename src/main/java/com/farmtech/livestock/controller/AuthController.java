@@ -12,6 +12,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000", "https://localhost:5173"})
@@ -42,22 +46,36 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(
             @Valid @RequestBody LoginRequest loginRequest) {
         try {
             System.out.println("Login request received for: " + loginRequest.getEmail());
 
-            AuthResponse authResponse = authService.login(loginRequest);
-
-            System.out.println("Login successful for: " + loginRequest.getEmail());
-
-            return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", authResponse));
+            // Password hashing runs on its own pool; the servlet thread is released until it completes
+            return authService.login(loginRequest)
+                    .thenApply(authResponse -> {
+                        System.out.println("Login successful for: " + loginRequest.getEmail());
+                        return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", authResponse));
+                    })
+                    .exceptionally(this::loginFailed);
         } catch (Exception e) {
-            System.err.println("Login failed: " + e.getMessage());
+            return CompletableFuture.completedFuture(loginFailed(e));
+        }
+    }
 
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(new ApiResponse<>(false, e.getMessage(), null));
+    private ResponseEntity<ApiResponse<AuthResponse>> loginFailed(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "1")
+                    .body(new ApiResponse<>(false, "Too many login attempts in progress, please retry shortly", null));
         }
+
+        System.err.println("Login failed: " + cause.getMessage());
+
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new ApiResponse<>(false, cause.getMessage(), null));
     }
 
     @PostMapping("/refresh")
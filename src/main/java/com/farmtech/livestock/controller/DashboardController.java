@@ -1,10 +1,25 @@
 package com.farmtech.livestock.controller;
 
+import com.farmtech.livestock.security.EventStreamTickets;
+import com.farmtech.livestock.security.PasswordVerificationService;
+import com.farmtech.livestock.security.PrincipalCache;
+import com.farmtech.livestock.service.AuctionBidWriter;
+import com.farmtech.livestock.service.AuctionEngine;
+import com.farmtech.livestock.service.DashboardEventBroadcaster;
 import com.farmtech.livestock.service.DashboardService;
+import com.farmtech.livestock.service.HealthSummaryService;
+import com.farmtech.livestock.service.LastLoginRecorder;
+import com.farmtech.livestock.service.ListingEngagementCounters;
+import com.farmtech.livestock.service.ListingExpiryScheduler;
+import com.farmtech.livestock.service.ListingIndex;
+import com.farmtech.livestock.service.LivestockImageDerivatives;
+import com.farmtech.livestock.service.LivestockImageStorage;
+import com.farmtech.livestock.service.PedigreeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -12,10 +27,51 @@ import java.util.Map;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final PrincipalCache principalCache;
+    private final PasswordVerificationService passwordVerificationService;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final HealthSummaryService healthSummaryService;
+    private final DashboardEventBroadcaster eventBroadcaster;
+    private final EventStreamTickets streamTickets;
+    private final LivestockImageStorage imageStorage;
+    private final LivestockImageDerivatives imageDerivatives;
+    private final ListingIndex listingIndex;
+    private final ListingEngagementCounters listingCounters;
+    private final ListingExpiryScheduler listingExpiry;
+    private final AuctionEngine auctionEngine;
+    private final AuctionBidWriter auctionBidWriter;
+    private final PedigreeService pedigreeService;
 
     @Autowired
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, PrincipalCache principalCache,
+                               PasswordVerificationService passwordVerificationService,
+                               LastLoginRecorder lastLoginRecorder,
+                               HealthSummaryService healthSummaryService,
+                               DashboardEventBroadcaster eventBroadcaster,
+                               EventStreamTickets streamTickets,
+                               LivestockImageStorage imageStorage,
+                               LivestockImageDerivatives imageDerivatives,
+                               ListingIndex listingIndex,
+                               ListingEngagementCounters listingCounters,
+                               ListingExpiryScheduler listingExpiry,
+                               AuctionEngine auctionEngine,
+                               AuctionBidWriter auctionBidWriter,
+                               PedigreeService pedigreeService) {
         this.dashboardService = dashboardService;
+        this.principalCache = principalCache;
+        this.passwordVerificationService = passwordVerificationService;
+        this.lastLoginRecorder = lastLoginRecorder;
+        this.healthSummaryService = healthSummaryService;
+        this.eventBroadcaster = eventBroadcaster;
+        this.streamTickets = streamTickets;
+        this.imageStorage = imageStorage;
+        this.imageDerivatives = imageDerivatives;
+        this.listingIndex = listingIndex;
+        this.listingCounters = listingCounters;
+        this.listingExpiry = listingExpiry;
+        this.auctionEngine = auctionEngine;
+        this.auctionBidWriter = auctionBidWriter;
+        this.pedigreeService = pedigreeService;
     }
 
     @GetMapping("/stats")
@@ -23,4 +79,68 @@ public class DashboardController {
         Map<String, Long> stats = dashboardService.getDashboardStats();
         return ResponseEntity.ok(stats);
     }
+
+    @GetMapping("/principal-cache")
+    public ResponseEntity<Map<String, Long>> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.getStats());
+    }
+
+    @GetMapping("/login-metrics")
+    public ResponseEntity<Map<String, Long>> getLoginMetrics() {
+        Map<String, Long> metrics = new LinkedHashMap<>(passwordVerificationService.getStats());
+        metrics.putAll(lastLoginRecorder.getStats());
+        return ResponseEntity.ok(metrics);
+    }
+
+    @GetMapping("/event-stream")
+    public ResponseEntity<Map<String, Long>> getEventStreamStats() {
+        Map<String, Long> stats = new LinkedHashMap<>(eventBroadcaster.getStats());
+        stats.putAll(streamTickets.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/image-storage")
+    public ResponseEntity<Map<String, Long>> getImageStorageStats() {
+        Map<String, Long> stats = new LinkedHashMap<>(imageStorage.getStats());
+        stats.putAll(imageDerivatives.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/listing-index")
+    public ResponseEntity<Map<String, Long>> getListingIndexStats() {
+        return ResponseEntity.ok(listingIndex.getStats());
+    }
+
+    @GetMapping("/listing-counters")
+    public ResponseEntity<Map<String, Long>> getListingCounterStats() {
+        return ResponseEntity.ok(listingCounters.getStats());
+    }
+
+    @GetMapping("/listing-expiry")
+    public ResponseEntity<Map<String, Long>> getListingExpiryStats() {
+        return ResponseEntity.ok(listingExpiry.getStats());
+    }
+
+    @GetMapping("/auctions")
+    public ResponseEntity<Map<String, Long>> getAuctionStats() {
+        Map<String, Long> stats = new LinkedHashMap<>(auctionEngine.getStats());
+        stats.putAll(auctionBidWriter.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/pedigree-cache")
+    public ResponseEntity<Map<String, Long>> getPedigreeCacheStats() {
+        return ResponseEntity.ok(pedigreeService.getStats());
+    }
+
+    // Number of livestock whose health summary disagrees with health_records
+    @GetMapping("/health-summaries/check")
+    public ResponseEntity<Map<String, Long>> checkHealthSummaries() {
+        return ResponseEntity.ok(Map.of("inconsistent", healthSummaryService.countInconsistent()));
+    }
+
+    @PostMapping("/health-summaries/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuildHealthSummaries() {
+        return ResponseEntity.ok(Map.of("rebuilt", (long) healthSummaryService.rebuildAll()));
+    }
 }
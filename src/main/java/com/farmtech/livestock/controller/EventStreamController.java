@@ -0,0 +1,55 @@
+package com.farmtech.livestock.controller;
+
+import com.farmtech.livestock.dto.ApiResponse;
+import com.farmtech.livestock.security.EventStreamTickets;
+import com.farmtech.livestock.service.DashboardEventBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventStreamController {
+
+    private final DashboardEventBroadcaster broadcaster;
+    private final EventStreamTickets tickets;
+
+    @Autowired
+    public EventStreamController(DashboardEventBroadcaster broadcaster, EventStreamTickets tickets) {
+        this.broadcaster = broadcaster;
+        this.tickets = tickets;
+    }
+
+    // ✅ Single-use ticket for opening /stream, requested with the usual Bearer header
+    @PostMapping("/ticket")
+    public ResponseEntity<ApiResponse<Map<String, String>>> ticket(Authentication authentication) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Event stream ticket issued",
+                Map.of("ticket", tickets.issue(authentication))));
+    }
+
+    // ✅ Dashboard push channel; topics are filtered by the caller's role.
+    // EventSource cannot send headers, so browsers open it with ?ticket= from POST /ticket.
+    // ?auction=<listingId> adds live high-bid updates for that auction, for any signed-in user.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(Authentication authentication,
+                                             @RequestParam(name = "auction", required = false) Integer auctionListingId) {
+        String role = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .findFirst()
+                .orElse("");
+        try {
+            return ResponseEntity.ok(broadcaster.subscribe(authentication.getName(), role, auctionListingId));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -1,15 +1,18 @@
 package com.farmtech.livestock.controller;
 
 import com.farmtech.livestock.dto.ApiResponse;
+import com.farmtech.livestock.dto.CursorPageDto;
 import com.farmtech.livestock.dto.HealthRecordDto;
+import com.farmtech.livestock.dto.OutbreakAlert;
 import com.farmtech.livestock.model.HealthRecord;
 import com.farmtech.livestock.service.HealthRecordService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.farmtech.livestock.service.OutbreakDetector;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,6 +24,9 @@ public class HealthRecordController {
     @Autowired
     private HealthRecordService healthRecordService;
 
+    @Autowired
+    private OutbreakDetector outbreakDetector;
+
     // Add a health record
     @PostMapping
     public ResponseEntity<ApiResponse<HealthRecordDto>> createHealthRecord(@RequestBody HealthRecordDto dto) {
@@ -35,7 +41,7 @@ public class HealthRecordController {
             HealthRecord record = healthRecordService.addHealthRecord(dto);
 
             // Convert entity back to DTO
-            HealthRecordDto responseDto = mapToDto(record);
+            HealthRecordDto responseDto = healthRecordService.mapToDto(record);
 
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(new ApiResponse<>(true, "Health record added successfully", responseDto));
@@ -44,68 +50,84 @@ public class HealthRecordController {
                     .body(new ApiResponse<>(false, e.getMessage(), null));
         }
     }
-    // Get all health records (for vet dashboard)
+    // Most recent health records (for vet dashboard); use /feed or /stream for full history
     @GetMapping
-    public ResponseEntity<ApiResponse<List<HealthRecordDto>>> getAllHealthRecords() {
-        List<HealthRecordDto> dtos = healthRecordService.getAllHealthRecords()
-                .stream()
-                .map(healthRecordService::mapToDto) // create mapping method
-                .toList();
+    public ResponseEntity<ApiResponse<List<HealthRecordDto>>> getAllHealthRecords(
+            @RequestParam(defaultValue = "50") int size) {
+        List<HealthRecordDto> dtos = healthRecordService.getHealthRecordFeed(null, size).getItems();
 
         return ResponseEntity.ok(new ApiResponse<>(true, "Health records retrieved successfully", dtos));
     }
 
-
-    // Get all health records for a specific livestock
-    @GetMapping("/livestock/{livestockId}")
-    public ResponseEntity<ApiResponse<List<HealthRecord>>> getHealthRecordsByLivestock(@PathVariable Integer livestockId) {
+    // ✅ Cursor-based feed, newest first: pass back nextCursor to get older records
+    @GetMapping("/feed")
+    public ResponseEntity<ApiResponse<CursorPageDto<HealthRecordDto>>> getHealthRecordFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            List<HealthRecord> records = healthRecordService.getHealthRecordsByLivestock(livestockId);
-            return ResponseEntity.ok(new ApiResponse<>(true, "Health records retrieved successfully", records));
+            CursorPageDto<HealthRecordDto> page = healthRecordService.getHealthRecordFeed(cursor, size);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Health records retrieved successfully", page));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ApiResponse<>(false, e.getMessage(), null));
         }
     }
-    /**
-     * Helper method to map entity to DTO
-     */
-    private HealthRecordDto mapToDto(HealthRecord record) {
-        return new HealthRecordDto(
-                record.getLivestock().getLivestockId(),
-                record.getVet() != null ? record.getVet().getVetId() : null,
-                record.getExaminationDate(),
-                record.getExaminationType(),
-                record.getTemperatureCelsius(),
-                record.getHeartRateBpm(),
-                record.getRespiratoryRateBpm(),
-                record.getWeightKg(),
-                record.getBodyConditionScore(),
-                convertJsonToList(record.getSymptoms()),
-                record.getDiagnosis(),
-                record.getTreatmentGiven(),
-                convertJsonToList(record.getMedicationsPrescribed()),
-                record.getRecommendations(),
-                record.getFollowUpRequired(),
-                record.getFollowUpDate(),
-                record.getConsultationFee(),
-                record.getStatus()
-        );
+
+    // ✅ Entire history as newline-delimited JSON, written as it is read
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamHealthRecords() {
+        StreamingResponseBody body = healthRecordService::streamHealthRecords;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
-    /**
-     * Helper: Convert JSON string -> list
-     */
-    private List<String> convertJsonToList(String json) {
-        if (json == null || json.trim().isEmpty() || "[]".equals(json.trim())) {
-            return List.of();
-        }
+
+    // ✅ Records with a given symptom in the last N days, e.g. /symptoms/coughing?days=30
+    @GetMapping("/symptoms/{symptom}")
+    public ResponseEntity<ApiResponse<List<HealthRecordDto>>> getRecordsWithSymptom(
+            @PathVariable String symptom,
+            @RequestParam(defaultValue = "30") Integer days) {
         try {
-            return new ObjectMapper().readValue(json, new TypeReference<List<String>>() {});
+            List<HealthRecordDto> dtos = healthRecordService.getRecordsWithSymptom(symptom, days)
+                    .stream()
+                    .map(healthRecordService::mapToDto)
+                    .toList();
+            return ResponseEntity.ok(new ApiResponse<>(true, "Health records retrieved successfully", dtos));
         } catch (Exception e) {
-            return List.of();
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
         }
     }
 
-}
+    // ✅ Symptom clusters per county and category currently over the outbreak threshold
+    @GetMapping("/outbreaks")
+    public ResponseEntity<ApiResponse<List<OutbreakAlert>>> getActiveOutbreaks() {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Active outbreaks", outbreakDetector.getActiveOutbreaks()));
+    }
 
+    // Alerts raised since startup, newest first
+    @GetMapping("/outbreaks/alerts")
+    public ResponseEntity<ApiResponse<List<OutbreakAlert>>> getOutbreakAlerts() {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Recent outbreak alerts", outbreakDetector.getRecentAlerts()));
+    }
+
+    // ✅ Precomputed health stats for a livestock
+    @GetMapping("/livestock/{livestockId}/stats")
+    public ResponseEntity<ApiResponse<HealthRecordService.HealthRecordStats>> getHealthRecordStats(@PathVariable Integer livestockId) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Health stats retrieved successfully",
+                healthRecordService.getHealthRecordStats(livestockId)));
+    }
+
+    // Get all health records for a specific livestock
+    @GetMapping("/livestock/{livestockId}")
+    public ResponseEntity<ApiResponse<List<HealthRecord>>> getHealthRecordsByLivestock(@PathVariable Integer livestockId) {
+        try {
+            List<HealthRecord> records = healthRecordService.getHealthRecordsByLivestock(livestockId);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Health records retrieved successfully", records));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+}
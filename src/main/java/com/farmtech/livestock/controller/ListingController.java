@@ -0,0 +1,186 @@
+package com.farmtech.livestock.controller;
+
+import com.farmtech.livestock.dto.ApiResponse;
+import com.farmtech.livestock.dto.AuctionBidDto;
+import com.farmtech.livestock.dto.AuctionStateDto;
+import com.farmtech.livestock.dto.BidRequest;
+import com.farmtech.livestock.dto.ListingBrowseResult;
+import com.farmtech.livestock.dto.ListingDto;
+import com.farmtech.livestock.dto.ListingSearchRequest;
+import com.farmtech.livestock.security.JwtAuthenticationDetails;
+import com.farmtech.livestock.service.ListingService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/listings")
+@CrossOrigin(origins = "*")
+public class ListingController {
+
+    @Autowired
+    private ListingService listingService;
+
+    // ✅ Faceted browse over active listings, e.g. ?categoryId=1&county=Nakuru&maxPrice=50000&sort=price_asc
+    @GetMapping
+    public ResponseEntity<ApiResponse<ListingBrowseResult>> browseListings(@ModelAttribute ListingSearchRequest request) {
+        return ResponseEntity.ok(new ApiResponse<>(true, "Listings retrieved successfully", listingService.browse(request)));
+    }
+
+    // ✅ Listings owned by the current farmer, in every status
+    @GetMapping("/mine")
+    public ResponseEntity<ApiResponse<List<ListingDto>>> getMyListings(
+            Authentication authentication,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            List<ListingDto> listings = listingService.getMyListings(authentication.getName(), page, size);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Listings retrieved successfully", listings));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ListingDto>> getListing(@PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(new ApiResponse<>(true, "Listing retrieved successfully", listingService.getListing(id)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    // ✅ Buyer contact request; counted without touching the listing row
+    @PostMapping("/{id}/contact")
+    public ResponseEntity<ApiResponse<Void>> contactSeller(@PathVariable Integer id) {
+        try {
+            listingService.recordContact(id);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Contact request recorded", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    // ✅ Live view and contact counts, including increments not yet written to the database
+    @GetMapping("/{id}/counters")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getCounters(@PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(new ApiResponse<>(true, "Listing counters", listingService.getEngagement(id)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    // ✅ Place a bid; the request thread is released while the auction's lane decides it
+    @PostMapping("/{id}/bids")
+    public CompletableFuture<ResponseEntity<ApiResponse<AuctionStateDto>>> placeBid(@PathVariable Integer id,
+                                                                                   @Valid @RequestBody BidRequest request,
+                                                                                   Authentication authentication) {
+        try {
+            return listingService.placeBid(id, request.getAmount(),
+                            JwtAuthenticationDetails.userIdOf(authentication), authentication.getName())
+                    .thenApply(state -> ResponseEntity.ok(new ApiResponse<>(true, "Bid accepted", state)))
+                    .exceptionally(this::bidFailed);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(bidFailed(e));
+        }
+    }
+
+    // ✅ Current high bid, bid count and end time of an auction
+    @GetMapping("/{id}/auction")
+    public CompletableFuture<ResponseEntity<ApiResponse<AuctionStateDto>>> getAuction(@PathVariable Integer id) {
+        return listingService.getAuction(id)
+                .thenApply(state -> ResponseEntity.ok(new ApiResponse<>(true, "Auction retrieved successfully", state)))
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(new ApiResponse<>(false, cause.getMessage(), null));
+                });
+    }
+
+    @GetMapping("/{id}/bids")
+    public ResponseEntity<ApiResponse<List<AuctionBidDto>>> getBids(@PathVariable Integer id,
+                                                                  @RequestParam(defaultValue = "20") int limit,
+                                                                  Authentication authentication) {
+        try {
+            List<AuctionBidDto> bids = listingService.getBids(id, JwtAuthenticationDetails.userIdOf(authentication),
+                    authentication.getName(), limit);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Bids retrieved successfully", bids));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ListingDto>> createListing(@RequestBody ListingDto dto, Authentication authentication) {
+        try {
+            ListingDto created = listingService.createListing(dto, authentication.getName());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new ApiResponse<>(true, "Listing created successfully", created));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<ListingDto>> updateListing(@PathVariable Integer id,
+                                                                 @RequestBody ListingDto dto,
+                                                                 Authentication authentication) {
+        try {
+            ListingDto updated = listingService.updateListing(id, dto, authentication.getName());
+            return ResponseEntity.ok(new ApiResponse<>(true, "Listing updated successfully", updated));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/{id}/withdraw")
+    public ResponseEntity<ApiResponse<ListingDto>> withdrawListing(@PathVariable Integer id, Authentication authentication) {
+        try {
+            ListingDto withdrawn = listingService.withdrawListing(id, authentication.getName());
+            return ResponseEntity.ok(new ApiResponse<>(true, "Listing withdrawn", withdrawn));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/{id}/sold")
+    public ResponseEntity<ApiResponse<ListingDto>> markSold(@PathVariable Integer id, Authentication authentication) {
+        try {
+            ListingDto sold = listingService.markSold(id, authentication.getName());
+            return ResponseEntity.ok(new ApiResponse<>(true, "Listing marked as sold", sold));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    private ResponseEntity<ApiResponse<AuctionStateDto>> bidFailed(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "1")
+                    .body(new ApiResponse<>(false, "Too many bids in progress, please retry shortly", null));
+        }
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse<>(false, cause.getMessage(), null));
+    }
+}
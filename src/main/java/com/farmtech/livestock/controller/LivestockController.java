@@ -1,7 +1,10 @@
 package com.farmtech.livestock.controller;
 
 import com.farmtech.livestock.dto.ApiResponse;
+import com.farmtech.livestock.dto.CommonAncestorDto;
+import com.farmtech.livestock.dto.CursorPageDto;
 import com.farmtech.livestock.dto.LivestockDto;
+import com.farmtech.livestock.dto.PedigreeEntryDto;
 import com.farmtech.livestock.model.Livestock;
 import com.farmtech.livestock.service.AuthService;
 import com.farmtech.livestock.service.LivestockService;
@@ -102,6 +105,52 @@ public class LivestockController {
         }
     }
 
+    // ✅ Ancestors of an animal within the caller's herd, nearest generation first
+    @GetMapping("/{id}/pedigree/ancestors")
+    public ResponseEntity<ApiResponse<List<PedigreeEntryDto>>> getAncestors(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int generations,
+            Authentication authentication) {
+        try {
+            List<PedigreeEntryDto> ancestors = livestockService.getAncestorsByEmail(id, authentication.getName(), generations);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Ancestors retrieved", ancestors));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    // ✅ Offspring of an animal within the caller's herd, nearest generation first
+    @GetMapping("/{id}/pedigree/descendants")
+    public ResponseEntity<ApiResponse<List<PedigreeEntryDto>>> getDescendants(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "5") int generations,
+            Authentication authentication) {
+        try {
+            List<PedigreeEntryDto> descendants = livestockService.getDescendantsByEmail(id, authentication.getName(), generations);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Descendants retrieved", descendants));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    // ✅ Ancestors shared with another animal, e.g. to check a planned mating
+    @GetMapping("/{id}/pedigree/common-ancestors")
+    public ResponseEntity<ApiResponse<List<CommonAncestorDto>>> getCommonAncestors(
+            @PathVariable Long id,
+            @RequestParam("with") Long otherId,
+            @RequestParam(defaultValue = "10") int generations,
+            Authentication authentication) {
+        try {
+            List<CommonAncestorDto> common = livestockService.getCommonAncestorsByEmail(id, otherId, authentication.getName(), generations);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Common ancestors retrieved", common));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
     // ✅ Delete livestock
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<String>> deleteLivestock(
@@ -163,6 +212,64 @@ public class LivestockController {
         }
     }
 
+    // ✅ Cursor-based listing: pass back nextCursor to get the following page
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPageDto<LivestockDto>>> scrollLivestock(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            String email = authentication.getName();
+            CursorPageDto<LivestockDto> page = livestockService
+                    .scrollFarmerLivestockByEmail(email, cursor, size)
+                    .map(this::convertToDto);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Livestock retrieved", page));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    // ✅ Cursor-based search
+    @GetMapping("/search/scroll")
+    public ResponseEntity<ApiResponse<CursorPageDto<LivestockDto>>> scrollSearchLivestock(
+            @RequestParam String query,
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            String email = authentication.getName();
+            CursorPageDto<LivestockDto> page = livestockService
+                    .scrollSearchLivestockByEmail(query, email, cursor, size)
+                    .map(this::convertToDto);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Search results", page));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    // ✅ Cursor-based filter
+    @GetMapping("/filter/scroll")
+    public ResponseEntity<ApiResponse<CursorPageDto<LivestockDto>>> scrollFilterLivestock(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String breed,
+            @RequestParam(required = false) String status,
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            String email = authentication.getName();
+            CursorPageDto<LivestockDto> page = livestockService
+                    .scrollFilterLivestockByEmail(type, breed, status, email, cursor, size)
+                    .map(this::convertToDto);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Filtered results", page));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
     // ✅ Add health record
     @PostMapping("/{id}/health-record")
     public ResponseEntity<ApiResponse<String>> addHealthRecord(
@@ -0,0 +1,230 @@
+package com.farmtech.livestock.controller;
+
+import com.farmtech.livestock.service.LivestockImageDerivatives;
+import com.farmtech.livestock.service.LivestockImageDerivatives.Variant;
+import com.farmtech.livestock.service.LivestockImageStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves content-addressed media (livestock photos, their variants, listing videos) straight from
+ * disk. Supports single byte ranges, If-None-Match / If-Modified-Since / If-Range, and hands the
+ * body to Tomcat's sendfile when the connector offers it, falling back to
+ * {@link FileChannel#transferTo} into the response otherwise.
+ */
+@RestController
+@RequestMapping("/api/public/media")
+@CrossOrigin(origins = "*")
+public class MediaController {
+
+    // Content-addressed files never change, so caches may keep them for a year without revalidating
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    // Request attributes understood by Tomcat's NIO connector (see org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Below this size a plain channel write is cheaper than setting up sendfile
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    private final LivestockImageStorage storage;
+    private final LivestockImageDerivatives derivatives;
+
+    @Autowired
+    public MediaController(LivestockImageStorage storage, LivestockImageDerivatives derivatives) {
+        this.storage = storage;
+        this.derivatives = derivatives;
+    }
+
+    // ✅ Media by stored name, e.g. /api/public/media/3f2a...c9.jpg?size=thumb
+    // size is thumb, card, full or original (default); variants only exist for images
+    @RequestMapping(value = "/{name:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getMedia(@PathVariable String name,
+                         @RequestParam(defaultValue = "original") String size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path original = storage.resolve(name).orElse(null);
+        if (original == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String hash = LivestockImageStorage.contentHash(name);
+
+        if ("original".equalsIgnoreCase(size)) {
+            send(original, "\"" + hash + "\"", IMMUTABLE, mediaTypeOf(name), request, response);
+            return;
+        }
+        Variant variant = Variant.fromKey(size);
+        if (variant == null || !LivestockImageStorage.isImage(name)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        Path derived = storage.derivativePath(name, variant.key());
+        if (Files.isRegularFile(derived)) {
+            send(derived, "\"" + hash + "-" + variant.key() + "\"", IMMUTABLE, MediaType.IMAGE_JPEG, request, response);
+            return;
+        }
+        // Not generated yet: queue it and serve the original, which the client must not cache as this size
+        derivatives.requestIfMissing(name);
+        send(original, "\"" + hash + "\"", CacheControl.noCache(), mediaTypeOf(name), request, response);
+    }
+
+    private void send(Path file, String etag, CacheControl cacheControl, MediaType mediaType,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        // Set before the body so Spring Security's no-cache defaults are not applied on commit
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds != null && bounds.length == 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds != null) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(mediaType.toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        // Zero-copy: Tomcat streams the file region with sendfile(2) after this method returns
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) break;
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    // If-None-Match takes precedence over If-Modified-Since (RFC 9110, 13.2.2)
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etagListMatches(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    // A stale If-Range means the client's partial copy is outdated, so the whole file is sent
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"")) return ifRange.equals(etag);
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+            return lastModified / 1000 == date / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static boolean etagListMatches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses a single "bytes=" range into inclusive {start, end}. Returns an empty array when the
+     * range cannot be satisfied and null when the header should be ignored (malformed, another
+     * unit, or several ranges, which are answered with the full file).
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return null;
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the final N bytes
+                if (last.isEmpty()) return null;
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) return new long[0];
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length) return new long[0];
+            if (end < start) return null;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static MediaType mediaTypeOf(String name) {
+        return MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+}
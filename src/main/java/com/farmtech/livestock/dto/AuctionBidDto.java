@@ -0,0 +1,20 @@
+package com.farmtech.livestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One entry of an auction's bid history; bidders are not identified beyond "yours"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionBidDto {
+
+    private Integer bidNumber;
+    private BigDecimal amount;
+    private LocalDateTime placedAt;
+    private boolean yours;
+}
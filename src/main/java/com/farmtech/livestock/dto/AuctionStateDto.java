@@ -0,0 +1,28 @@
+package com.farmtech.livestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Current state of an auction as pushed to watchers. {@code version} is the number of accepted
+ * bids, so clients can ignore an update older than the one they already show. The seller's
+ * minimum price is never included, only whether the high bid has reached it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionStateDto {
+
+    private Integer listingId;
+    private boolean open;
+    private BigDecimal highBid;
+    private BigDecimal minimumNextBid;
+    private int bidCount;
+    private boolean reserveMet;
+    private LocalDateTime endsAt;
+    private long version;
+}
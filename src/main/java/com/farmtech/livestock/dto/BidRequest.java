@@ -0,0 +1,17 @@
+package com.farmtech.livestock.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class BidRequest {
+
+    @NotNull(message = "Bid amount is required")
+    @DecimalMin(value = "0.01", message = "Bid amount must be greater than zero")
+    @Digits(integer = 8, fraction = 2, message = "Bid amount must have at most 8 digits and 2 decimals")
+    private BigDecimal amount;
+}
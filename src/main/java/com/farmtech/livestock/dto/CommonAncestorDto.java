@@ -0,0 +1,18 @@
+package com.farmtech.livestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// An ancestor shared by two animals, with the shortest number of generations back from each
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommonAncestorDto {
+
+    private Integer livestockId;
+    private String name;
+    private String tagNumber;
+    private int generationsFromFirst;
+    private int generationsFromSecond;
+}
@@ -0,0 +1,27 @@
+package com.farmtech.livestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated result. {@code nextCursor} is opaque to clients and is
+ * passed back unchanged to fetch the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    public <R> CursorPageDto<R> map(Function<T, R> mapper) {
+        return new CursorPageDto<>(items.stream().map(mapper).collect(Collectors.toList()), nextCursor, hasNext);
+    }
+}
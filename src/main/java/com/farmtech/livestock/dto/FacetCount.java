@@ -0,0 +1,16 @@
+package com.farmtech.livestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One facet value with the number of listings it would match under the other active filters
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCount {
+
+    private String value;
+    private String label;
+    private int count;
+}
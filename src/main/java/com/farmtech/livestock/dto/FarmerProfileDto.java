@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -11,7 +12,8 @@ import java.util.List;
 @AllArgsConstructor
 public class FarmerProfileDto {
 
-    private Long id;                     // FarmerProfile ID
+    private Long id;                     // User ID
+    private Integer farmerId;            // FarmerProfile ID, null when the farmer has no profile yet
 
     private String firstName;
     private String lastName;// Derived from User (firstName + lastName)
@@ -22,4 +24,16 @@ public class FarmerProfileDto {
     // List of livestock (can be simplified or partial)
     private List<SimpleLivestockDto> livestock;
 
+    // Constructor projection used by FarmerProfileRepository.findFarmerSummaries
+    public FarmerProfileDto(Long userId, Integer farmerId, String firstName, String lastName, String farmName,
+                            String phoneNumber, String email) {
+        this.id = userId;
+        this.farmerId = farmerId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.farmName = farmName;
+        this.phoneNumber = phoneNumber;
+        this.email = email;
+        this.livestock = new ArrayList<>();
+    }
 }
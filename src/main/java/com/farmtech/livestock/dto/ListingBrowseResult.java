@@ -0,0 +1,23 @@
+package com.farmtech.livestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of browse results with facet counts for "category", "priceBucket" and "county".
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingBrowseResult {
+
+    private List<ListingDto> items;
+    private int total;
+    private int page;
+    private int size;
+    private Map<String, List<FacetCount>> facets;
+}
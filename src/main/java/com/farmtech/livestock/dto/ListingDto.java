@@ -0,0 +1,43 @@
+package com.farmtech.livestock.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Marketplace listing as sent to and from clients. {@code minimumPrice} is only filled in for
+ * the seller's own views; browse results never carry it.
+ */
+@Data
+@NoArgsConstructor
+public class ListingDto {
+
+    private Integer listingId;
+    private Integer livestockId;
+    private String livestockName;
+    private Integer categoryId;
+    private String categoryName;
+    private String breedName;
+    private Integer farmerId;
+    private String county;
+
+    private String title;
+    private String description;
+    private BigDecimal askingPrice;
+    private BigDecimal minimumPrice;
+    private Boolean negotiable;
+    private String listingStatus;
+    private String listingType;
+    private LocalDateTime auctionEndDate;
+    private Boolean featured;
+    private Integer viewCount;
+    private String images;
+    private String videoUrl;
+    private Boolean locationVisible;
+    private Boolean deliveryAvailable;
+    private BigDecimal deliveryCost;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
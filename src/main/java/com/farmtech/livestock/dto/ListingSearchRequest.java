@@ -0,0 +1,28 @@
+package com.farmtech.livestock.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Browse filters, bound from query parameters, e.g.
+ * {@code ?categoryId=1&categoryId=3&county=Nakuru&minPrice=10000&sort=price_asc}.
+ * Values within one facet are OR-ed; different facets are AND-ed.
+ */
+@Data
+@NoArgsConstructor
+public class ListingSearchRequest {
+
+    private List<Integer> categoryId;
+    private List<String> county;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private String listingType;
+    private Boolean deliveryAvailable;
+    // newest (featured first), price_asc or price_desc
+    private String sort = "newest";
+    private int page = 0;
+    private int size = 24;
+}
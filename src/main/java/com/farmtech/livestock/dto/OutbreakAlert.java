@@ -0,0 +1,26 @@
+package com.farmtech.livestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A (symptom, county, category) cluster whose record count inside the sliding window
+ * reached the outbreak threshold.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutbreakAlert {
+
+    private String symptom;
+    private String county;
+    private Integer categoryId;
+    private int recordCount;
+    private int windowDays;
+    private LocalDate windowStart;
+    private LocalDateTime raisedAt;
+}
@@ -0,0 +1,18 @@
+package com.farmtech.livestock.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One relative in an ancestry or descendant walk; generation 1 is parents (or children)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedigreeEntryDto {
+
+    private Integer livestockId;
+    private String name;
+    private String tagNumber;
+    private String gender;
+    private int generation;
+}
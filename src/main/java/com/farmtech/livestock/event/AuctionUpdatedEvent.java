@@ -0,0 +1,17 @@
+package com.farmtech.livestock.event;
+
+import com.farmtech.livestock.dto.AuctionStateDto;
+
+// Published by AuctionEngine after a bid is accepted, the end time moves or the auction closes
+public class AuctionUpdatedEvent {
+
+    private final AuctionStateDto state;
+
+    public AuctionUpdatedEvent(AuctionStateDto state) {
+        this.state = state;
+    }
+
+    public AuctionStateDto getState() {
+        return state;
+    }
+}
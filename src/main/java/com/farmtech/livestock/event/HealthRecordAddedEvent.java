@@ -0,0 +1,17 @@
+package com.farmtech.livestock.event;
+
+import com.farmtech.livestock.dto.HealthRecordDto;
+
+// Published after a health record has been saved
+public class HealthRecordAddedEvent {
+
+    private final HealthRecordDto record;
+
+    public HealthRecordAddedEvent(HealthRecordDto record) {
+        this.record = record;
+    }
+
+    public HealthRecordDto getRecord() {
+        return record;
+    }
+}
@@ -0,0 +1,81 @@
+package com.farmtech.livestock.event;
+
+import com.farmtech.livestock.model.HealthRecord;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Published when a health record is created (before is null), edited, or deleted (after is null).
+// Carries plain snapshots so listeners running after commit never touch a detached entity.
+public class HealthRecordChangedEvent {
+
+    private final Snapshot before;
+    private final Snapshot after;
+
+    public HealthRecordChangedEvent(Snapshot before, Snapshot after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public static HealthRecordChangedEvent created(HealthRecord record) {
+        return new HealthRecordChangedEvent(null, Snapshot.of(record));
+    }
+
+    public static HealthRecordChangedEvent deleted(Snapshot removed) {
+        return new HealthRecordChangedEvent(removed, null);
+    }
+
+    public Snapshot getBefore() {
+        return before;
+    }
+
+    public Snapshot getAfter() {
+        return after;
+    }
+
+    public static final class Snapshot {
+        private final Integer recordId;
+        private final LocalDate examinationDate;
+        private final Integer categoryId;
+        private final Integer farmerId;
+        private final List<String> symptoms;
+
+        private Snapshot(Integer recordId, LocalDate examinationDate, Integer categoryId, Integer farmerId, List<String> symptoms) {
+            this.recordId = recordId;
+            this.examinationDate = examinationDate;
+            this.categoryId = categoryId;
+            this.farmerId = farmerId;
+            this.symptoms = symptoms;
+        }
+
+        public static Snapshot of(HealthRecord record) {
+            return new Snapshot(
+                    record.getHealthRecordId(),
+                    record.getExaminationDate(),
+                    record.getLivestock().getCategory().getCategoryId(),
+                    record.getLivestock().getFarmer().getFarmerId(),
+                    record.getSymptoms() == null ? List.of() : new ArrayList<>(record.getSymptoms()));
+        }
+
+        public Integer getRecordId() {
+            return recordId;
+        }
+
+        public LocalDate getExaminationDate() {
+            return examinationDate;
+        }
+
+        public Integer getCategoryId() {
+            return categoryId;
+        }
+
+        public Integer getFarmerId() {
+            return farmerId;
+        }
+
+        public List<String> getSymptoms() {
+            return symptoms;
+        }
+    }
+}
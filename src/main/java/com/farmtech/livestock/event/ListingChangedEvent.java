@@ -0,0 +1,25 @@
+package com.farmtech.livestock.event;
+
+// Published after a listing is created, edited or leaves the ACTIVE state
+public class ListingChangedEvent {
+
+    public enum Change {
+        CREATED, UPDATED, EXPIRED, WITHDRAWN, SOLD
+    }
+
+    private final Integer listingId;
+    private final Change change;
+
+    public ListingChangedEvent(Integer listingId, Change change) {
+        this.listingId = listingId;
+        this.change = change;
+    }
+
+    public Integer getListingId() {
+        return listingId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+}
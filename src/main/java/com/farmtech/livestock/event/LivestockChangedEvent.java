@@ -0,0 +1,21 @@
+package com.farmtech.livestock.event;
+
+// Published after a livestock row is created, edited or deleted, for caches keyed by herd
+public class LivestockChangedEvent {
+
+    private final Integer farmerId;
+    private final Integer livestockId;
+
+    public LivestockChangedEvent(Integer farmerId, Integer livestockId) {
+        this.farmerId = farmerId;
+        this.livestockId = livestockId;
+    }
+
+    public Integer getFarmerId() {
+        return farmerId;
+    }
+
+    public Integer getLivestockId() {
+        return livestockId;
+    }
+}
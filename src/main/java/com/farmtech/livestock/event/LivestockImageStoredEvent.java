@@ -0,0 +1,21 @@
+package com.farmtech.livestock.event;
+
+// Published when a livestock row is saved with a newly uploaded photo
+public class LivestockImageStoredEvent {
+
+    private final Integer livestockId;
+    private final String imageName;
+
+    public LivestockImageStoredEvent(Integer livestockId, String imageName) {
+        this.livestockId = livestockId;
+        this.imageName = imageName;
+    }
+
+    public Integer getLivestockId() {
+        return livestockId;
+    }
+
+    public String getImageName() {
+        return imageName;
+    }
+}
@@ -0,0 +1,36 @@
+package com.farmtech.livestock.event;
+
+import com.farmtech.livestock.model.Livestock;
+
+// Published when an update changes a livestock's health status
+public class LivestockStatusChangedEvent {
+
+    private final Integer livestockId;
+    private final String ownerEmail;
+    private final Livestock.HealthStatus previousStatus;
+    private final Livestock.HealthStatus currentStatus;
+
+    public LivestockStatusChangedEvent(Integer livestockId, String ownerEmail,
+                                       Livestock.HealthStatus previousStatus, Livestock.HealthStatus currentStatus) {
+        this.livestockId = livestockId;
+        this.ownerEmail = ownerEmail;
+        this.previousStatus = previousStatus;
+        this.currentStatus = currentStatus;
+    }
+
+    public Integer getLivestockId() {
+        return livestockId;
+    }
+
+    public String getOwnerEmail() {
+        return ownerEmail;
+    }
+
+    public Livestock.HealthStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Livestock.HealthStatus getCurrentStatus() {
+        return currentStatus;
+    }
+}
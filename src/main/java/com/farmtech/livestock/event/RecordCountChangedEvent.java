@@ -0,0 +1,33 @@
+package com.farmtech.livestock.event;
+
+// Published when rows of a counted table are created (+1) or deleted (-1)
+public class RecordCountChangedEvent {
+
+    public enum CountedRecord {
+        BREED, LIVESTOCK, HEALTH_RECORD
+    }
+
+    private final CountedRecord record;
+    private final int delta;
+
+    public RecordCountChangedEvent(CountedRecord record, int delta) {
+        this.record = record;
+        this.delta = delta;
+    }
+
+    public static RecordCountChangedEvent created(CountedRecord record) {
+        return new RecordCountChangedEvent(record, 1);
+    }
+
+    public static RecordCountChangedEvent deleted(CountedRecord record) {
+        return new RecordCountChangedEvent(record, -1);
+    }
+
+    public CountedRecord getRecord() {
+        return record;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+}
@@ -0,0 +1,19 @@
+package com.farmtech.livestock.event;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Published when a user's email, password or active flag changes; lists every email the account
+// was known by, so caches keyed by email can drop them once the change has committed
+public class UserAccountChangedEvent {
+
+    private final List<String> emails;
+
+    public UserAccountChangedEvent(String... emails) {
+        this.emails = Arrays.asList(emails);
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+}
@@ -0,0 +1,17 @@
+package com.farmtech.livestock.event;
+
+import com.farmtech.livestock.model.UserRole;
+
+// Published when an active account is soft-deleted; the row is kept but no longer counts as active
+public class UserDeactivatedEvent {
+
+    private final UserRole.RoleName role;
+
+    public UserDeactivatedEvent(UserRole.RoleName role) {
+        this.role = role;
+    }
+
+    public UserRole.RoleName getRole() {
+        return role;
+    }
+}
@@ -0,0 +1,17 @@
+package com.farmtech.livestock.event;
+
+import com.farmtech.livestock.model.UserRole;
+
+// Published after a new (active) user account has been saved
+public class UserRegisteredEvent {
+
+    private final UserRole.RoleName role;
+
+    public UserRegisteredEvent(UserRole.RoleName role) {
+        this.role = role;
+    }
+
+    public UserRole.RoleName getRole() {
+        return role;
+    }
+}
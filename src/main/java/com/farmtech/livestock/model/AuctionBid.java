@@ -0,0 +1,40 @@
+package com.farmtech.livestock.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One accepted auction bid; rows are only ever inserted, by AuctionBidWriter
+@Entity
+@Table(name = "auction_bids", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_auction_bids_listing_number", columnNames = {"listing_id", "bid_number"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionBid {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bid_id")
+    private Long bidId;
+
+    @Column(name = "listing_id", nullable = false, updatable = false)
+    private Integer listingId;
+
+    @Column(name = "bid_number", nullable = false, updatable = false)
+    private Integer bidNumber;
+
+    @Column(name = "bidder_user_id", nullable = false, updatable = false)
+    private Long bidderUserId;
+
+    @Column(name = "amount", nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "placed_at", nullable = false, updatable = false)
+    private LocalDateTime placedAt;
+}
@@ -5,13 +5,22 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
-@Table(name = "health_records")
+@Table(name = "health_records", indexes = {
+        // Access paths used by HealthRecordRepository; created in db/migration V2
+        @Index(name = "idx_health_records_livestock_date", columnList = "livestock_id, examination_date"),
+        @Index(name = "idx_health_records_livestock_status", columnList = "livestock_id, status"),
+        @Index(name = "idx_health_records_follow_up", columnList = "follow_up_required, follow_up_date"),
+        @Index(name = "idx_health_records_examination_date", columnList = "examination_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,8 +60,15 @@ public class HealthRecord {
     @Column(name = "body_condition_score")
     private Integer bodyConditionScore;
 
-    @Column(name = "symptoms", columnDefinition = "JSON")
-    private String symptoms;
+    // One row per symptom in health_record_symptoms; indexed by symptom for lookups
+    @ElementCollection
+    @CollectionTable(name = "health_record_symptoms",
+            joinColumns = @JoinColumn(name = "health_record_id"),
+            indexes = @Index(name = "idx_health_record_symptoms_symptom", columnList = "symptom, health_record_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "symptom", nullable = false, length = 100)
+    @BatchSize(size = 100)
+    private List<String> symptoms = new ArrayList<>();
 
     @Column(name = "diagnosis", columnDefinition = "TEXT")
     private String diagnosis;
@@ -60,8 +76,14 @@ public class HealthRecord {
     @Column(name = "treatment_given", columnDefinition = "TEXT")
     private String treatmentGiven;
 
-    @Column(name = "medications_prescribed", columnDefinition = "JSON")
-    private String medicationsPrescribed;
+    @ElementCollection
+    @CollectionTable(name = "health_record_medications",
+            joinColumns = @JoinColumn(name = "health_record_id"),
+            indexes = @Index(name = "idx_health_record_medications_medication", columnList = "medication, health_record_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "medication", nullable = false, length = 200)
+    @BatchSize(size = 100)
+    private List<String> medicationsPrescribed = new ArrayList<>();
 
     @Column(name = "recommendations", columnDefinition = "TEXT")
     private String recommendations;
@@ -14,7 +14,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "livestock")
+@Table(name = "livestock", indexes = {
+        // Owner-scoped access paths used by LivestockRepository
+        @Index(name = "idx_livestock_farmer_id", columnList = "farmer_id, livestock_id"),
+        @Index(name = "idx_livestock_farmer_tag", columnList = "farmer_id, tag_number"),
+        @Index(name = "idx_livestock_farmer_health", columnList = "farmer_id, health_status"),
+        @Index(name = "idx_livestock_farmer_name", columnList = "farmer_id, name")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -135,12 +141,13 @@ public class Livestock {
         updatedAt = LocalDateTime.now();
     }
 
+    // Identifier getters on a lazy proxy do not initialize it, so these never load the parent row
     public Integer getFatherId() {
-        return 0;
+        return father != null ? father.getLivestockId() : null;
     }
 
     public Integer getMotherId() {
-        return 0;
+        return mother != null ? mother.getLivestockId() : null;
     }
 
 
@@ -0,0 +1,47 @@
+package com.farmtech.livestock.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Materialized per-livestock health record aggregates, maintained by HealthSummaryService
+@Entity
+@Table(name = "livestock_health_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LivestockHealthSummary {
+
+    @Id
+    @Column(name = "livestock_id")
+    private Integer livestockId;
+
+    @Column(name = "total_records", nullable = false)
+    private Long totalRecords = 0L;
+
+    @Column(name = "active_records", nullable = false)
+    private Long activeRecords = 0L;
+
+    @Column(name = "resolved_records", nullable = false)
+    private Long resolvedRecords = 0L;
+
+    @Column(name = "ongoing_records", nullable = false)
+    private Long ongoingRecords = 0L;
+
+    @Column(name = "weight_sum_kg", nullable = false, precision = 14, scale = 2)
+    private BigDecimal weightSumKg = BigDecimal.ZERO;
+
+    @Column(name = "weight_count", nullable = false)
+    private Long weightCount = 0L;
+
+    @Column(name = "latest_examination_date")
+    private LocalDate latestExaminationDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
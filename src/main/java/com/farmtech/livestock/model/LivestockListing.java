@@ -12,7 +12,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "livestock_listings")
+@Table(name = "livestock_listings", indexes = {
+        // Snapshot of ACTIVE listings for ListingIndex and the expiry sweep
+        @Index(name = "idx_listings_status_expires", columnList = "listing_status, expires_at"),
+        @Index(name = "idx_listings_farmer_id", columnList = "farmer_id, listing_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -59,10 +63,11 @@ public class LivestockListing {
     @Column(name = "featured")
     private Boolean featured = false;
 
-    @Column(name = "view_count")
+    // Written only by ListingEngagementCounters' additive flush, never by an entity save
+    @Column(name = "view_count", updatable = false)
     private Integer viewCount = 0;
 
-    @Column(name = "contact_count")
+    @Column(name = "contact_count", updatable = false)
     private Integer contactCount = 0;
 
     @Column(name = "images", columnDefinition = "JSON")
@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 import java.util.Date;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Login and JWT principal lookup (findByEmailAndActive)
+        @Index(name = "idx_users_email_active", columnList = "email, is_active")
+})
 public class User {
 
     @Id
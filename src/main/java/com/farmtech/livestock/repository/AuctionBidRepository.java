@@ -0,0 +1,18 @@
+package com.farmtech.livestock.repository;
+
+import com.farmtech.livestock.model.AuctionBid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuctionBidRepository extends JpaRepository<AuctionBid, Long> {
+
+    // Bid history, newest first (uk_auction_bids_listing_number)
+    @Query("SELECT b FROM AuctionBid b WHERE b.listingId = :listingId ORDER BY b.bidNumber DESC")
+    List<AuctionBid> findRecentByListingId(@Param("listingId") Integer listingId, Pageable pageable);
+}
@@ -1,9 +1,15 @@
 package com.farmtech.livestock.repository;
 
+import com.farmtech.livestock.dto.FarmerProfileDto;
 import com.farmtech.livestock.model.FarmerProfile;
+import com.farmtech.livestock.model.UserRole;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,15 @@ public interface FarmerProfileRepository extends JpaRepository<FarmerProfile, In
 
     Optional<FarmerProfile> findByUserId(Long userId);
 
+    @Query("SELECT f.farmerId FROM FarmerProfile f WHERE f.user.email = :email")
+    Optional<Integer> findFarmerIdByUserEmail(@Param("email") String email);
+
+    // One row per active user with the role (same set as UserRepository.findAllByRoleName), profile
+    // columns left-joined in; livestock is filled in separately. A List, so no count query is issued
+    @Query("SELECT new com.farmtech.livestock.dto.FarmerProfileDto(" +
+            "u.id, f.farmerId, u.firstName, u.lastName, f.farmName, u.phoneNumber, u.email) " +
+            "FROM User u LEFT JOIN FarmerProfile f ON f.user = u " +
+            "WHERE u.role.roleName = :roleName AND u.active = true ORDER BY u.id")
+    List<FarmerProfileDto> findFarmerSummaries(@Param("roleName") UserRole.RoleName roleName, Pageable pageable);
+
 }
@@ -1,6 +1,8 @@
 package com.farmtech.livestock.repository;
 
 import com.farmtech.livestock.model.HealthRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -60,4 +62,15 @@ public interface HealthRecordRepository extends JpaRepository<HealthRecord, Inte
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
-}
\ No newline at end of file
+
+    // Keyset page for the vet feed, newest first; livestock and vet fetched in the same query
+    @Query("SELECT hr FROM HealthRecord hr JOIN FETCH hr.livestock LEFT JOIN FETCH hr.vet " +
+            "WHERE hr.healthRecordId < :beforeId ORDER BY hr.healthRecordId DESC")
+    Slice<HealthRecord> findFeedSliceBefore(@Param("beforeId") Integer beforeId, Pageable pageable);
+
+    // Records listing a symptom since a date; driven by idx_health_record_symptoms_symptom
+    @Query("SELECT DISTINCT hr FROM HealthRecord hr JOIN FETCH hr.livestock LEFT JOIN FETCH hr.vet " +
+            "JOIN hr.symptoms s WHERE s = :symptom AND hr.examinationDate >= :since " +
+            "ORDER BY hr.examinationDate DESC")
+    List<HealthRecord> findBySymptomSince(@Param("symptom") String symptom, @Param("since") LocalDate since);
+}
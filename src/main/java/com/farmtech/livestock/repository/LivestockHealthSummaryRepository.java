@@ -0,0 +1,9 @@
+package com.farmtech.livestock.repository;
+
+import com.farmtech.livestock.model.LivestockHealthSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LivestockHealthSummaryRepository extends JpaRepository<LivestockHealthSummary, Integer> {
+}
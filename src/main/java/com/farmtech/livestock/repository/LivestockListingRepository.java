@@ -0,0 +1,31 @@
+package com.farmtech.livestock.repository;
+
+import com.farmtech.livestock.model.LivestockListing;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LivestockListingRepository extends JpaRepository<LivestockListing, Integer> {
+
+    // Listing detail with the animal, its category/breed and the seller in one query
+    @Query("SELECT ll FROM LivestockListing ll " +
+           "JOIN FETCH ll.livestock l JOIN FETCH l.category JOIN FETCH l.breed JOIN FETCH ll.farmer " +
+           "WHERE ll.listingId = :id")
+    Optional<LivestockListing> findDetailById(@Param("id") Integer id);
+
+    @Query("SELECT ll FROM LivestockListing ll WHERE ll.listingId = :id AND ll.farmer.farmerId = :farmerId")
+    Optional<LivestockListing> findByIdAndFarmerId(@Param("id") Integer id, @Param("farmerId") Integer farmerId);
+
+    // A farmer's own listings in every status, newest first (idx_listings_farmer_id)
+    @Query("SELECT ll FROM LivestockListing ll JOIN FETCH ll.livestock l JOIN FETCH l.category JOIN FETCH l.breed " +
+           "WHERE ll.farmer.farmerId = :farmerId ORDER BY ll.listingId DESC")
+    Slice<LivestockListing> findSliceByFarmerId(@Param("farmerId") Integer farmerId, Pageable pageable);
+
+    boolean existsByLivestock_LivestockIdAndListingStatus(Integer livestockId, LivestockListing.ListingStatus status);
+}
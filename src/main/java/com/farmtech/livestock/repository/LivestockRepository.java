@@ -3,11 +3,13 @@ package com.farmtech.livestock.repository;
 import com.farmtech.livestock.model.Livestock;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -72,4 +74,61 @@ public interface LivestockRepository extends JpaRepository<Livestock, Integer> {
     // Find livestock for sale
     @Query("SELECT l FROM Livestock l WHERE l.farmer.user.username = :username AND l.isForSale = true")
     Page<Livestock> findByFarmer_User_UsernameAndIsForSale(@Param("username") String username, Pageable pageable);
+
+    // ===== Owner-scoped queries on livestock.farmer_id (no join through farmer_profiles/users) =====
+
+    @Query("SELECT l FROM Livestock l WHERE l.livestockId = :id AND l.farmer.farmerId = :farmerId")
+    Optional<Livestock> findByIdAndFarmerId(@Param("id") Integer id, @Param("farmerId") Integer farmerId);
+
+    @Query("SELECT l FROM Livestock l WHERE l.farmer.farmerId = :farmerId")
+    Page<Livestock> findByFarmerId(@Param("farmerId") Integer farmerId, Pageable pageable);
+
+    @Query("SELECT l FROM Livestock l WHERE l.farmer.farmerId = :farmerId " +
+            "AND LOWER(l.name) LIKE LOWER(CONCAT('%', :query, '%'))")
+    Page<Livestock> searchByFarmerId(@Param("farmerId") Integer farmerId,
+                                     @Param("query") String query,
+                                     Pageable pageable);
+
+    @Query("SELECT l FROM Livestock l WHERE l.farmer.farmerId = :farmerId " +
+            "AND (:categoryName IS NULL OR l.category.name = :categoryName) " +
+            "AND (:breedName IS NULL OR l.breed.name = :breedName) " +
+            "AND (:status IS NULL OR l.healthStatus = :status)")
+    Page<Livestock> filterByFarmerId(@Param("farmerId") Integer farmerId,
+                                     @Param("categoryName") String categoryName,
+                                     @Param("breedName") String breedName,
+                                     @Param("status") Livestock.HealthStatus status,
+                                     Pageable pageable);
+
+    // Keyset (seek) pagination by livestockId: returns a Slice, so no COUNT query is issued
+    @Query("SELECT l FROM Livestock l WHERE l.farmer.farmerId = :farmerId AND l.livestockId > :afterId " +
+            "ORDER BY l.livestockId")
+    Slice<Livestock> findSliceByFarmerIdAfter(@Param("farmerId") Integer farmerId,
+                                              @Param("afterId") Integer afterId,
+                                              Pageable pageable);
+
+    @Query("SELECT l FROM Livestock l WHERE l.farmer.farmerId = :farmerId AND l.livestockId > :afterId " +
+            "AND LOWER(l.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "ORDER BY l.livestockId")
+    Slice<Livestock> searchSliceByFarmerIdAfter(@Param("farmerId") Integer farmerId,
+                                                @Param("query") String query,
+                                                @Param("afterId") Integer afterId,
+                                                Pageable pageable);
+
+    @Query("SELECT l FROM Livestock l WHERE l.farmer.farmerId = :farmerId AND l.livestockId > :afterId " +
+            "AND (:categoryName IS NULL OR l.category.name = :categoryName) " +
+            "AND (:breedName IS NULL OR l.breed.name = :breedName) " +
+            "AND (:status IS NULL OR l.healthStatus = :status) " +
+            "ORDER BY l.livestockId")
+    Slice<Livestock> filterSliceByFarmerIdAfter(@Param("farmerId") Integer farmerId,
+                                                @Param("categoryName") String categoryName,
+                                                @Param("breedName") String breedName,
+                                                @Param("status") Livestock.HealthStatus status,
+                                                @Param("afterId") Integer afterId,
+                                                Pageable pageable);
+
+    // Flat rows for a page of farmers: [farmerId, livestockId, name, categoryName, breedName]
+    @Query("SELECT l.farmer.farmerId, l.livestockId, l.name, c.name, b.name FROM Livestock l " +
+            "JOIN l.category c JOIN l.breed b " +
+            "WHERE l.farmer.farmerId IN :farmerIds ORDER BY l.farmer.farmerId, l.livestockId")
+    List<Object[]> findSimpleRowsByFarmerIds(@Param("farmerIds") Collection<Integer> farmerIds);
 }
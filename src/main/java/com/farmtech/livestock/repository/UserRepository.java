@@ -40,4 +40,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.role.roleName = :roleName AND u.active = true")
     long countByRoleName(@Param("roleName") UserRole.RoleName roleName);
+
+    // Rows of [roleName, active, count] used to reconcile DashboardCounters
+    @Query("SELECT u.role.roleName, u.active, COUNT(u) FROM User u GROUP BY u.role.roleName, u.active")
+    List<Object[]> countGroupedByRoleAndActive();
 }
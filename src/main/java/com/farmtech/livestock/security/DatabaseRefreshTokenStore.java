@@ -0,0 +1,60 @@
+package com.farmtech.livestock.security;
+
+import com.farmtech.livestock.model.RefreshToken;
+import com.farmtech.livestock.repository.RefreshTokenRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Refresh token store shared by every node through the refresh_tokens table.
+ * Lookups hit the primary key; expired rows are swept on a schedule.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh.store", havingValue = "database")
+public class DatabaseRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    public DatabaseRefreshTokenStore(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    @Override
+    @Transactional
+    public void store(String tokenId, Long userId, Instant expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(RefreshTokenStore.hash(tokenId));
+        token.setUserId(userId);
+        token.setExpiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()));
+        refreshTokenRepository.save(token);
+    }
+
+    @Override
+    @Transactional
+    public boolean consume(String tokenId) {
+        return refreshTokenRepository.consume(RefreshTokenStore.hash(tokenId), LocalDateTime.now()) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String tokenId) {
+        refreshTokenRepository.deleteById(RefreshTokenStore.hash(tokenId));
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired() {
+        return refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.sweep-interval-ms:60000}")
+    public void sweep() {
+        purgeExpired();
+    }
+}
@@ -0,0 +1,106 @@
+package com.farmtech.livestock.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived, single-use tickets for opening the dashboard event stream. EventSource cannot send
+ * an Authorization header, so the browser first trades its access token for a ticket through an
+ * authenticated POST and puts only the ticket in the stream URL. A ticket that shows up in access or
+ * request logs has already been redeemed, or expires within seconds.
+ */
+@Component
+public class EventStreamTickets {
+
+    private static final int TICKET_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentHashMap<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong redeemed = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final long ttlMillis;
+    private final int maxPending;
+
+    public EventStreamTickets(@Value("${security.stream-ticket.ttl-seconds:30}") long ttlSeconds,
+                              @Value("${security.stream-ticket.max-pending:10000}") int maxPending) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxPending = maxPending;
+    }
+
+    // ✅ New ticket standing in for the caller's authentication on one stream request
+    public String issue(Authentication authentication) {
+        if (tickets.size() >= maxPending) {
+            evict();
+        }
+        byte[] bytes = new byte[TICKET_BYTES];
+        random.nextBytes(bytes);
+        String ticket = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tickets.put(ticket, new Ticket(authentication, System.currentTimeMillis() + ttlMillis));
+        issued.incrementAndGet();
+        return ticket;
+    }
+
+    // The authentication the ticket was issued for, or null if it is unknown, used or expired
+    public Authentication redeem(String ticket) {
+        Ticket entry = ticket == null ? null : tickets.remove(ticket);
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            refused.incrementAndGet();
+            return null;
+        }
+        redeemed.incrementAndGet();
+        return entry.authentication;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("ticketsPending", (long) tickets.size());
+        stats.put("ticketsIssued", issued.get());
+        stats.put("ticketsRedeemed", redeemed.get());
+        stats.put("ticketsRefused", refused.get());
+        stats.put("ticketEvictions", evictions.get());
+        return stats;
+    }
+
+    // Same policy as PrincipalCache: expired tickets first, then the oldest ~10%
+    private void evict() {
+        long now = System.currentTimeMillis();
+        tickets.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt <= now;
+            if (expired) evictions.incrementAndGet();
+            return expired;
+        });
+
+        int excess = tickets.size() - (maxPending - Math.max(1, maxPending / 10));
+        if (excess <= 0) return;
+        long[] expiries = tickets.values().stream().mapToLong(e -> e.expiresAt).sorted().toArray();
+        if (expiries.length == 0) return;
+        long cutoff = expiries[Math.min(excess, expiries.length) - 1];
+        tickets.entrySet().removeIf(e -> {
+            boolean oldest = e.getValue().expiresAt <= cutoff;
+            if (oldest) evictions.incrementAndGet();
+            return oldest;
+        });
+    }
+
+    private static final class Ticket {
+        private final Authentication authentication;
+        private final long expiresAt;
+
+        private Ticket(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.farmtech.livestock.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Single-node refresh token store. Lookups go through a hash map; a second set ordered by
+ * expiry lets the sweeper and the size bound evict the soonest-expiring tokens first.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.refresh.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final ConcurrentHashMap<String, Long> expiryByHash = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> byExpiry = new ConcurrentSkipListSet<>(
+            Comparator.<Entry>comparingLong(e -> e.expiresAt).thenComparing(e -> e.hash));
+
+    private final int maxSize;
+
+    public InMemoryRefreshTokenStore(@Value("${jwt.refresh.max-tokens:100000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void store(String tokenId, Long userId, Instant expiresAt) {
+        String hash = RefreshTokenStore.hash(tokenId);
+        long expiry = expiresAt.toEpochMilli();
+
+        Long previous = expiryByHash.put(hash, expiry);
+        if (previous != null) {
+            byExpiry.remove(new Entry(previous, hash));
+        }
+        byExpiry.add(new Entry(expiry, hash));
+
+        // Keep memory bounded: shed the tokens closest to expiry first
+        while (expiryByHash.size() > maxSize) {
+            Entry oldest = byExpiry.pollFirst();
+            if (oldest == null) break;
+            expiryByHash.remove(oldest.hash, oldest.expiresAt);
+        }
+    }
+
+    @Override
+    public boolean consume(String tokenId) {
+        String hash = RefreshTokenStore.hash(tokenId);
+        Long expiry = expiryByHash.remove(hash);
+        if (expiry == null) {
+            return false;
+        }
+        byExpiry.remove(new Entry(expiry, hash));
+        return expiry > System.currentTimeMillis();
+    }
+
+    @Override
+    public void revoke(String tokenId) {
+        consume(tokenId);
+    }
+
+    @Override
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Entry entry : byExpiry) {
+            if (entry.expiresAt > now) break;
+            if (byExpiry.remove(entry)) {
+                expiryByHash.remove(entry.hash, entry.expiresAt);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.sweep-interval-ms:60000}")
+    public void sweep() {
+        purgeExpired();
+    }
+
+    public int size() {
+        return expiryByHash.size();
+    }
+
+    private static final class Entry {
+        private final long expiresAt;
+        private final String hash;
+
+        private Entry(long expiresAt, String hash) {
+            this.expiresAt = expiresAt;
+            this.hash = hash;
+        }
+    }
+}
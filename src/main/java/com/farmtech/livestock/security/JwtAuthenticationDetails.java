@@ -0,0 +1,32 @@
+package com.farmtech.livestock.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Request details plus the {@code userId} claim of the access token that authenticated it.
+ * The id is signed into the token at login, so it stays correct after the user changes email,
+ * unlike any email to id lookup cached on this node.
+ */
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final Long userId;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, Long userId) {
+        super(request);
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    // The caller's user id, or null when the request was not authenticated by a token carrying one
+    public static Long userIdOf(Authentication authentication) {
+        if (authentication != null && authentication.getDetails() instanceof JwtAuthenticationDetails details) {
+            return details.getUserId();
+        }
+        return null;
+    }
+}
@@ -12,9 +12,12 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.GrantedAuthority;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -30,29 +33,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenDenyList tokenDenyList;
+
+    @Autowired
+    private EventStreamTickets streamTickets;
+
+    // When enabled, the principal is built from the verified `email`/`role` claims without a DB lookup
+    @Value("${security.jwt.claims-only:false}")
+    private boolean claimsOnly;
+
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+    private static final String EVENT_STREAM_PATH = "/api/events/stream";
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        final String authHeader = request.getHeader("Authorization");
-
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (EVENT_STREAM_PATH.equals(request.getServletPath()) && request.getParameter("ticket") != null) {
+            authenticateStreamTicket(request);
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String jwt = authHeader.substring(7);
+        final String jwt = extractToken(request);
+
+        if (jwt == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
         try {
-            final String email = jwtService.extractUsername(jwt); // JWT `sub` contains email
+            // Parse and verify once; subject, expiry and claims are read from the result
+            final VerifiedToken token = jwtService.parseToken(jwt);
+            final String email = token.getSubject(); // JWT `sub` contains email
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByEmail(email);
+            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !tokenDenyList.isRevoked(token)) {
+                UserDetails userDetails = resolvePrincipal(token, email);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -60,7 +85,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     userDetails.getAuthorities()  // Make sure these are SimpleGrantedAuthority
                             );
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    Number userId = token.get("userId", Number.class);
+                    authToken.setDetails(new JwtAuthenticationDetails(request, userId == null ? null : userId.longValue()));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
 
                     log.info("User [{}] authenticated with roles: {}", email,
@@ -76,4 +102,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Tokens are only accepted in the header, never in a URL that ends up in request logs
+    private String extractToken(HttpServletRequest request) {
+        final String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
+
+    // EventSource cannot set headers: the stream is opened with a single-use ticket issued to a
+    // request that was authenticated by a token
+    private void authenticateStreamTicket(HttpServletRequest request) {
+        Authentication issuedTo = streamTickets.redeem(request.getParameter("ticket"));
+        if (issuedTo == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(issuedTo.getPrincipal(), null, issuedTo.getAuthorities());
+        authToken.setDetails(new JwtAuthenticationDetails(request, JwtAuthenticationDetails.userIdOf(issuedTo)));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
+    private UserDetails resolvePrincipal(VerifiedToken token, String email) {
+        String role = token.get("role", String.class);
+        if (claimsOnly && role != null) {
+            return User.withUsername(email)
+                    .password("")
+                    .authorities(new SimpleGrantedAuthority(role))
+                    .build();
+        }
+
+        UserDetails userDetails = principalCache.get(email);
+        if (userDetails == null) {
+            userDetails = userDetailsService.loadUserByEmail(email);
+            principalCache.put(email, userDetails);
+        }
+        return userDetails;
+    }
 }
@@ -1,27 +1,110 @@
 package com.farmtech.livestock.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Single token engine for the application: signs every access/refresh token and verifies them.
+ * Keys, the signature algorithm and the parser are built once at startup.
+ * Tokens carry a {@code kid} header so older keys listed in {@code jwt.previous-keys}
+ * keep verifying while the active key is rotated.
+ */
 @Service
 public class JwtService {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
     @Value("${jwt.secret}")
     private String secretKey;
 
+    @Value("${jwt.key-id:primary}")
+    private String activeKeyId;
+
+    // Comma-separated "kid:secret" pairs still accepted for verification
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys;
+
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    private final Map<String, SecretKey> verificationKeys = new HashMap<>();
+    private SecretKey signInKey;
+    private SignatureAlgorithm signatureAlgorithm;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        signatureAlgorithm = SignatureAlgorithm.forSigningKey(signInKey);
+        verificationKeys.put(activeKeyId, signInKey);
+
+        for (String entry : previousKeys.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) continue;
+            String kid = entry.substring(0, separator).trim();
+            String secret = entry.substring(separator + 1).trim();
+            verificationKeys.putIfAbsent(kid, Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        String kid = header.getKeyId();
+                        if (kid == null) {
+                            return signInKey; // tokens issued before kid headers were added
+                        }
+                        SecretKey key = verificationKeys.get(kid);
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Unknown signing key id: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Signs a token with the active key. {@code claims} may be empty; subject, iat and exp are set here.
+     */
+    public String sign(Map<String, Object> claims, String subject, long expirationMillis) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .setClaims(claims)
+                .setSubject(subject)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + expirationMillis))
+                .signWith(signInKey, signatureAlgorithm)
+                .compact();
+    }
+
+    /**
+     * Parses and verifies the token once. Expired or tampered tokens throw a JwtException.
+     */
+    public VerifiedToken parseToken(String token) {
+        return new VerifiedToken(token, parser.parseClaimsJws(token).getBody());
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -56,38 +139,20 @@ public class JwtService {
     }
 
     private String buildToken(Map<String, Object> extraClaims, String subject, long expirationMillis) {
-        return Jwts.builder()
-                .setClaims(extraClaims)
-                .setSubject(subject)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + expirationMillis))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS384)
-                .compact();
+        return sign(new HashMap<>(extraClaims), subject, expirationMillis);
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return isTokenValid(parseToken(token), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        String username = token.getSubject();
+        return username != null && username.equals(userDetails.getUsername()) && !token.isExpired();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private SecretKey getSignInKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        return parseToken(token).getClaims();
     }
 
     @SuppressWarnings("unchecked")
@@ -104,7 +169,7 @@ public class JwtService {
                 return List.of((String) roles);
             }
         } catch (Exception e) {
-            System.err.println("Failed to extract roles: " + e.getMessage());
+            log.warn("Failed to extract roles: {}", e.getMessage());
         }
         return Collections.emptyList();
     }
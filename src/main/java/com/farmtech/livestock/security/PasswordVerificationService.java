@@ -0,0 +1,86 @@
+package com.farmtech.livestock.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs BCrypt password checks on a dedicated, size-limited pool so login bursts cannot tie up
+ * servlet threads. When the queue is full the submission fails fast with a
+ * {@link RejectedExecutionException}, which the login endpoint turns into HTTP 429.
+ */
+@Service
+public class PasswordVerificationService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordVerificationService(PasswordEncoder passwordEncoder,
+                                       @Value("${auth.login.hash-threads:0}") int threads,
+                                       @Value("${auth.login.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    verifications.incrementAndGet();
+                    totalHashNanos.addAndGet(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejections.incrementAndGet();
+            throw e;
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        long count = verifications.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("poolSize", (long) executor.getMaximumPoolSize());
+        stats.put("activeThreads", (long) executor.getActiveCount());
+        stats.put("queueDepth", (long) executor.getQueue().size());
+        stats.put("queueRemainingCapacity", (long) executor.getQueue().remainingCapacity());
+        stats.put("verifications", count);
+        stats.put("rejections", rejections.get());
+        stats.put("avgHashMillis", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalHashNanos.get() / count));
+        stats.put("maxHashMillis", TimeUnit.NANOSECONDS.toMillis(maxHashNanos.get()));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
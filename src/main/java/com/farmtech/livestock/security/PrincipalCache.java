@@ -0,0 +1,116 @@
+package com.farmtech.livestock.security;
+
+import com.farmtech.livestock.event.UserAccountChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals keyed by email.
+ * Lets the JWT filter skip the user + role lookup on every request.
+ * Account changes are dropped after they commit, so a request racing the change cannot cache the
+ * old principal again after the invalidation.
+ */
+@Component
+public class PrincipalCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    public UserDetails get(String email) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(email, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.userDetails;
+    }
+
+    public void put(String email, UserDetails userDetails) {
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(email, new Entry(userDetails, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        event.getEmails().forEach(this::invalidate);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) entries.size());
+        stats.put("maxSize", (long) maxSize);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    // Drop expired entries first; if still full, shed the oldest ~10%. Every entry lives for the same
+    // TTL, so the earliest expiry is the earliest insertion
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt <= now;
+            if (expired) evictions.incrementAndGet();
+            return expired;
+        });
+
+        int excess = entries.size() - (maxSize - Math.max(1, maxSize / 10));
+        if (excess <= 0) return;
+        long[] expiries = entries.values().stream().mapToLong(e -> e.expiresAt).sorted().toArray();
+        if (expiries.length == 0) return;
+        long cutoff = expiries[Math.min(excess, expiries.length) - 1];
+        entries.entrySet().removeIf(e -> {
+            boolean oldest = e.getValue().expiresAt <= cutoff;
+            if (oldest) evictions.incrementAndGet();
+            return oldest;
+        });
+    }
+
+    private static final class Entry {
+        private final UserDetails userDetails;
+        private final long expiresAt;
+
+        private Entry(UserDetails userDetails, long expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
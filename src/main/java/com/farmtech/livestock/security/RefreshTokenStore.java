@@ -0,0 +1,38 @@
+package com.farmtech.livestock.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Server-side registry of issued refresh tokens, keyed by a SHA-256 hash of the token id (jti).
+ * The raw token never leaves AuthService; implementations only ever see and keep the hash.
+ */
+public interface RefreshTokenStore {
+
+    void store(String tokenId, Long userId, Instant expiresAt);
+
+    /**
+     * Removes the token and reports whether it was present and not yet expired.
+     * A token can be consumed at most once, even across nodes.
+     */
+    boolean consume(String tokenId);
+
+    void revoke(String tokenId);
+
+    /**
+     * Drops every expired entry and returns how many were removed.
+     */
+    int purgeExpired();
+
+    static String hash(String tokenId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(tokenId.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
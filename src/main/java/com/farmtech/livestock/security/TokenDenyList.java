@@ -0,0 +1,104 @@
+package com.farmtech.livestock.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact deny-list of users whose tokens must no longer be accepted.
+ * Stores one revocation timestamp per email; any token issued at or before it is rejected.
+ * Entries are dropped once every token they could match has expired on its own, so retention
+ * never falls below the access token lifetime.
+ * <p>
+ * With {@code security.deny-list.store=memory} revocations only reach the node that made them.
+ * With {@code database} they are also written to {@code token_revocations}, which every node
+ * polls at a short interval, so a revoked user is rejected everywhere within one poll.
+ */
+@Component
+public class TokenDenyList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenDenyList.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO token_revocations (email, revoked_at) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE revoked_at = GREATEST(revoked_at, VALUES(revoked_at))";
+    private static final String POLL_SQL =
+            "SELECT email, revoked_at FROM token_revocations WHERE revoked_at >= ?";
+    private static final String PRUNE_SQL =
+            "DELETE FROM token_revocations WHERE revoked_at < ?";
+    // Re-read a little behind the last poll so rows written by nodes with a lagging clock are not missed
+    private static final long POLL_OVERLAP_MILLIS = 60_000;
+
+    private final ConcurrentHashMap<String, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean shared;
+    private final long retentionMillis;
+    private volatile long lastPollMillis;
+
+    public TokenDenyList(JdbcTemplate jdbcTemplate,
+                         @Value("${security.deny-list.store:memory}") String store,
+                         @Value("${security.deny-list.retention-seconds:86400}") long retentionSeconds,
+                         @Value("${jwt.expiration:86400}") long accessTokenSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shared = "database".equalsIgnoreCase(store.trim());
+        // Access tokens are signed for jwt.expiration seconds (see AuthService); forgetting a revocation
+        // before then would let the revoked tokens back in
+        if (retentionSeconds < accessTokenSeconds) {
+            log.warn("security.deny-list.retention-seconds={} is shorter than jwt.expiration={}; using the token lifetime",
+                    retentionSeconds, accessTokenSeconds);
+        }
+        this.retentionMillis = Math.max(retentionSeconds, accessTokenSeconds) * 1000;
+    }
+
+    public void revokeUser(String email) {
+        if (email == null) return;
+        long now = System.currentTimeMillis();
+        revokedUsers.merge(email, now, Math::max);
+        prune(now);
+        if (shared) {
+            jdbcTemplate.update(UPSERT_SQL, email, now);
+        }
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        Long revokedAt = revokedUsers.get(token.getSubject());
+        if (revokedAt == null) return false;
+
+        Date issuedAt = token.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() <= revokedAt;
+    }
+
+    // ✅ Pull revocations made on other nodes into the local map and drop rows past retention
+    @Scheduled(fixedDelayString = "${security.deny-list.poll-interval-ms:5000}")
+    public void poll() {
+        if (!shared) return;
+        long now = System.currentTimeMillis();
+        long since = lastPollMillis == 0 ? now - retentionMillis : lastPollMillis - POLL_OVERLAP_MILLIS;
+        try {
+            jdbcTemplate.query(POLL_SQL, rs -> {
+                revokedUsers.merge(rs.getString("email"), rs.getLong("revoked_at"), Math::max);
+            }, since);
+            jdbcTemplate.update(PRUNE_SQL, now - retentionMillis);
+            lastPollMillis = now;
+        } catch (RuntimeException e) {
+            // Keep the old cursor so the next poll covers this window too
+            log.error("Failed to poll token revocations: {}", e.getMessage());
+        }
+        prune(now);
+    }
+
+    public int size() {
+        return revokedUsers.size();
+    }
+
+    private void prune(long now) {
+        revokedUsers.values().removeIf(revokedAt -> revokedAt < now - retentionMillis);
+    }
+}
@@ -0,0 +1,49 @@
+package com.farmtech.livestock.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * A JWT whose signature has already been checked, holding its parsed claims
+ * so callers can read subject, expiry and custom claims without re-parsing.
+ */
+public class VerifiedToken {
+
+    private final String token;
+    private final Claims claims;
+
+    public VerifiedToken(String token, Claims claims) {
+        this.token = token;
+        this.claims = claims;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public boolean isExpired() {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+
+    public <T> T get(String claimName, Class<T> requiredType) {
+        return claims.get(claimName, requiredType);
+    }
+}
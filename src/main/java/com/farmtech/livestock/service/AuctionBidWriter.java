@@ -0,0 +1,181 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.event.ListingChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists what {@link AuctionEngine} decides, off the bidding path: accepted bids are queued and
+ * appended to {@code auction_bids} in batches, and anti-sniping extensions are coalesced to the
+ * latest end time per listing. A bid already stored under its (listing_id, bid_number) is left as
+ * it is by a no-op {@code ON DUPLICATE KEY UPDATE}, so a batch that failed half way is simply retried
+ * whole. Unlike {@code INSERT IGNORE}, that still fails on any other error (a bad value, a missing
+ * bidder), so such a bid is never silently dropped.
+ */
+@Component
+public class AuctionBidWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionBidWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO auction_bids (listing_id, bid_number, bidder_user_id, amount, placed_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE bid_id = bid_id";
+    // expires_at moves with the auction so the listing cannot expire before the extended end
+    private static final String EXTEND_SQL =
+            "UPDATE livestock_listings SET auction_end_date = ?, " +
+            "expires_at = CASE WHEN expires_at < ? THEN ? ELSE expires_at END, updated_at = ? " +
+            "WHERE listing_id = ? AND listing_status = 'ACTIVE' AND auction_end_date < ?";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int queueCapacity;
+    private final BlockingQueue<PendingBid> queue;
+    // Only touched under the flush lock; bids that failed to insert and go first next time
+    private final List<PendingBid> retry = new ArrayList<>();
+    private final ConcurrentHashMap<Integer, LocalDateTime> extensions = new ConcurrentHashMap<>();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong extensionsWritten = new AtomicLong();
+    private volatile long lastFlushMillis;
+
+    public AuctionBidWriter(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                            @Value("${listing.auction.write-queue-capacity:50000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // Returns false when the queue is full; the engine then refuses the bid rather than lose it
+    public boolean append(Integer listingId, int bidNumber, Long bidderUserId, BigDecimal amount, LocalDateTime placedAt) {
+        return queue.offer(new PendingBid(listingId, bidNumber, bidderUserId, amount, placedAt));
+    }
+
+    public void extend(Integer listingId, LocalDateTime endsAt) {
+        extensions.merge(listingId, endsAt, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Scheduled(fixedDelayString = "${listing.auction.flush-interval-ms:100}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    // ✅ Append queued bids in batches, then write the latest end time of each extended auction.
+    // Returns false when something is still unwritten, so callers closing auctions can wait.
+    public synchronized boolean flush() {
+        long start = System.currentTimeMillis();
+        List<PendingBid> bids = new ArrayList<>(retry);
+        retry.clear();
+        // While the database is failing, the queue fills up and new bids are refused instead of held
+        queue.drainTo(bids, Math.max(0, queueCapacity - bids.size()));
+
+        if (!bids.isEmpty()) {
+            try {
+                for (int from = 0; from < bids.size(); from += BATCH_SIZE) {
+                    List<PendingBid> chunk = bids.subList(from, Math.min(bids.size(), from + BATCH_SIZE));
+                    jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (ps, bid) -> {
+                        ps.setInt(1, bid.listingId);
+                        ps.setInt(2, bid.bidNumber);
+                        ps.setLong(3, bid.bidderUserId);
+                        ps.setBigDecimal(4, bid.amount);
+                        ps.setTimestamp(5, Timestamp.valueOf(bid.placedAt));
+                    });
+                }
+                written.addAndGet(bids.size());
+            } catch (RuntimeException e) {
+                failedFlushes.incrementAndGet();
+                retry.addAll(bids);
+                log.error("Failed to write {} auction bids, keeping them for the next flush: {}", bids.size(), e.getMessage());
+                // Extensions wait too, so no auction is extended past a bid that is not stored yet
+                return false;
+            }
+        }
+
+        boolean extended = extensions.isEmpty() || writeExtensions();
+        lastFlushMillis = System.currentTimeMillis() - start;
+        return extended;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queuedBids", (long) queue.size());
+        synchronized (this) {
+            stats.put("retryBids", (long) retry.size());
+        }
+        stats.put("pendingExtensions", (long) extensions.size());
+        stats.put("writtenBids", written.get());
+        stats.put("writtenExtensions", extensionsWritten.get());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("lastFlushMillis", lastFlushMillis);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private boolean writeExtensions() {
+        SortedMap<Integer, LocalDateTime> batch = new TreeMap<>();
+        for (Map.Entry<Integer, LocalDateTime> entry : extensions.entrySet()) {
+            if (extensions.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            List<Object[]> args = new ArrayList<>(batch.size());
+            for (Map.Entry<Integer, LocalDateTime> entry : batch.entrySet()) {
+                Timestamp endsAt = Timestamp.valueOf(entry.getValue());
+                args.add(new Object[]{endsAt, endsAt, endsAt, now, entry.getKey(), endsAt});
+            }
+            jdbcTemplate.batchUpdate(EXTEND_SQL, args);
+            extensionsWritten.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            // The guard on auction_end_date makes a repeated extension harmless
+            failedFlushes.incrementAndGet();
+            batch.forEach(this::extend);
+            log.error("Failed to extend {} auctions, retrying on the next flush: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        // Re-arms the expiry timer and refreshes the browse index for each extended auction
+        for (Integer listingId : batch.keySet()) {
+            eventPublisher.publishEvent(new ListingChangedEvent(listingId, ListingChangedEvent.Change.UPDATED));
+        }
+        return true;
+    }
+
+    private static final class PendingBid {
+        private final Integer listingId;
+        private final int bidNumber;
+        private final Long bidderUserId;
+        private final BigDecimal amount;
+        private final LocalDateTime placedAt;
+
+        private PendingBid(Integer listingId, int bidNumber, Long bidderUserId, BigDecimal amount, LocalDateTime placedAt) {
+            this.listingId = listingId;
+            this.bidNumber = bidNumber;
+            this.bidderUserId = bidderUserId;
+            this.amount = amount;
+            this.placedAt = placedAt;
+        }
+    }
+}
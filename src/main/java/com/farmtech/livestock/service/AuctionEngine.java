@@ -0,0 +1,391 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.AuctionStateDto;
+import com.farmtech.livestock.event.AuctionUpdatedEvent;
+import com.farmtech.livestock.event.ListingChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs every AUCTION listing on one single-threaded lane, chosen by listing id, so all bids for an
+ * auction are decided in order by one thread with plain fields and no locks; different auctions
+ * proceed in parallel on other lanes. An accepted bid is handed to {@link AuctionBidWriter} for a
+ * batched append, and the new high bid is published as an {@link AuctionUpdatedEvent} for watchers.
+ * <p>
+ * A bid inside the last {@code listing.auction.extension-window-seconds} pushes the end out to
+ * {@code listing.auction.extension-seconds} from now (anti-sniping), and never pulls it in. The
+ * seller's minimum price is a reserve: bids below it are accepted, but {@link ListingExpiryScheduler}
+ * only closes the auction as SOLD when the high bid reached it.
+ */
+@Component
+public class AuctionEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionEngine.class);
+
+    private static final BigDecimal OPENING_BID = new BigDecimal("0.01");
+    private static final long SEAL_TIMEOUT_MILLIS = 5000;
+
+    private static final String LISTING_SQL =
+            "SELECT ll.listing_status, ll.listing_type, ll.minimum_price, ll.auction_end_date, ll.expires_at, " +
+            "f.user_id AS seller_user_id FROM livestock_listings ll " +
+            "JOIN farmer_profiles f ON f.farmer_id = ll.farmer_id WHERE ll.listing_id = ?";
+    // Every accepted bid beats the previous one, so the last bid is the high bid
+    private static final String TOP_BID_SQL =
+            "SELECT bid_number, bidder_user_id, amount FROM auction_bids WHERE listing_id = ? " +
+            "ORDER BY bid_number DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuctionBidWriter bidWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BigDecimal minIncrement;
+    private final Duration extensionWindow;
+    private final Duration extension;
+
+    private final Lane[] lanes;
+    // Latest published state per open auction, readable without visiting the lane
+    private final ConcurrentHashMap<Integer, AuctionStateDto> snapshots = new ConcurrentHashMap<>();
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong busy = new AtomicLong();
+    private final AtomicLong extensions = new AtomicLong();
+
+    public AuctionEngine(JdbcTemplate jdbcTemplate, AuctionBidWriter bidWriter,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${listing.auction.lanes:4}") int laneCount,
+                         @Value("${listing.auction.lane-queue-capacity:10000}") int queueCapacity,
+                         @Value("${listing.auction.min-increment:100}") BigDecimal minIncrement,
+                         @Value("${listing.auction.extension-window-seconds:120}") long extensionWindowSeconds,
+                         @Value("${listing.auction.extension-seconds:120}") long extensionSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bidWriter = bidWriter;
+        this.eventPublisher = eventPublisher;
+        this.minIncrement = minIncrement;
+        this.extensionWindow = Duration.ofSeconds(extensionWindowSeconds);
+        this.extension = Duration.ofSeconds(extensionSeconds);
+        this.lanes = new Lane[Math.max(1, laneCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+        }
+    }
+
+    // ✅ Decide a bid on the auction's lane; fails with RejectedExecutionException when the lane is full
+    public CompletableFuture<AuctionStateDto> placeBid(Integer listingId, Long bidderUserId, BigDecimal amount) {
+        return onLane(listingId, states -> accept(states, listingId, bidderUserId, amount));
+    }
+
+    // ✅ Current state; open auctions are answered from the last published snapshot
+    public CompletableFuture<AuctionStateDto> getState(Integer listingId) {
+        AuctionStateDto snapshot = snapshots.get(listingId);
+        if (snapshot != null) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        return onLane(listingId, states -> {
+            AuctionState state = states.get(listingId);
+            if (state == null) {
+                state = load(listingId);
+                if (state.open) states.put(listingId, state);
+            }
+            return state.open ? publish(listingId, state, false) : state.toDto(listingId, minIncrement);
+        });
+    }
+
+    public boolean hasBids(Integer listingId) {
+        AuctionStateDto snapshot = snapshots.get(listingId);
+        if (snapshot != null && snapshot.getBidCount() > 0) return true;
+        return !jdbcTemplate.queryForList("SELECT 1 FROM auction_bids WHERE listing_id = ? LIMIT 1",
+                Integer.class, listingId).isEmpty();
+    }
+
+    /**
+     * Stops bidding on every listed auction whose end has passed, in order with the bids already on
+     * its lane. Called by the expiry scheduler before it closes the rows; returns false if a lane did
+     * not confirm in time, in which case the caller must not close these listings yet.
+     */
+    public boolean sealDue(int[] listingIds) {
+        Map<Lane, List<Integer>> byLane = new HashMap<>();
+        for (int listingId : listingIds) {
+            byLane.computeIfAbsent(lane(listingId), l -> new ArrayList<>()).add(listingId);
+        }
+        List<CompletableFuture<Void>> sealed = new ArrayList<>(byLane.size());
+        for (Map.Entry<Lane, List<Integer>> entry : byLane.entrySet()) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            control(entry.getKey(), states -> {
+                LocalDateTime now = LocalDateTime.now();
+                for (Integer listingId : entry.getValue()) {
+                    AuctionState state = states.get(listingId);
+                    if (state != null && !now.isBefore(state.endsAt)) {
+                        state.sealed = true;
+                    }
+                }
+                done.complete(null);
+            });
+            sealed.add(done);
+        }
+        try {
+            CompletableFuture.allOf(sealed.toArray(new CompletableFuture[0])).get(SEAL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        Integer listingId = event.getListingId();
+        switch (event.getChange()) {
+            case CREATED:
+                break;
+            case UPDATED:
+                control(lane(listingId), states -> reload(states, listingId));
+                break;
+            default:
+                control(lane(listingId), states -> close(states, listingId));
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long queued = 0;
+        for (Lane lane : lanes) {
+            queued += lane.executor.getQueue().size();
+        }
+        stats.put("lanes", (long) lanes.length);
+        stats.put("openAuctions", (long) snapshots.size());
+        stats.put("queued", queued);
+        stats.put("acceptedBids", accepted.get());
+        stats.put("rejectedBids", rejected.get());
+        stats.put("busyRejections", busy.get());
+        stats.put("extensions", extensions.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        // Bids already decided are in the writer queue, which flushes after this bean is gone
+        try {
+            for (Lane lane : lanes) {
+                lane.executor.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Runs on the lane thread
+    private AuctionStateDto accept(Map<Integer, AuctionState> states, Integer listingId, Long bidderUserId, BigDecimal amount) {
+        AuctionState state = states.get(listingId);
+        if (state == null) {
+            state = load(listingId);
+            if (state.open) states.put(listingId, state);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!state.open || state.sealed || !now.isBefore(state.endsAt)) {
+            rejected.incrementAndGet();
+            throw new RuntimeException("This auction is not open for bidding");
+        }
+        if (bidderUserId.equals(state.sellerUserId)) {
+            rejected.incrementAndGet();
+            throw new RuntimeException("Sellers cannot bid on their own auction");
+        }
+        BigDecimal floor = state.minimumNextBid(minIncrement);
+        if (amount.compareTo(floor) < 0) {
+            rejected.incrementAndGet();
+            throw new RuntimeException("Bid must be at least " + floor.toPlainString());
+        }
+
+        int bidNumber = state.bidCount + 1;
+        if (!bidWriter.append(listingId, bidNumber, bidderUserId, amount, now)) {
+            busy.incrementAndGet();
+            throw new RejectedExecutionException("Bid log is full");
+        }
+        state.bidCount = bidNumber;
+        state.highBid = amount;
+        state.leaderUserId = bidderUserId;
+
+        // Only ever later: with a window longer than the extension, now + extension can fall before the end
+        LocalDateTime extendedEnd = now.plus(extension);
+        if (Duration.between(now, state.endsAt).compareTo(extensionWindow) < 0 && extendedEnd.isAfter(state.endsAt)) {
+            state.endsAt = extendedEnd;
+            bidWriter.extend(listingId, state.endsAt);
+            extensions.incrementAndGet();
+        }
+        accepted.incrementAndGet();
+        return publish(listingId, state, true);
+    }
+
+    // Runs on the lane thread; applies a seller edit or an extension write-back to a loaded auction
+    private void reload(Map<Integer, AuctionState> states, Integer listingId) {
+        AuctionState state = states.get(listingId);
+        if (state == null) return;
+        AuctionState fresh = load(listingId);
+        if (!fresh.open) {
+            close(states, listingId);
+            return;
+        }
+        state.minimumPrice = fresh.minimumPrice;
+        state.sellerUserId = fresh.sellerUserId;
+        if (state.bidCount > 0 && fresh.endsAt.isBefore(state.endsAt)) {
+            // A stale entity save wrote back an older end time; extensions are never undone
+            bidWriter.extend(listingId, state.endsAt);
+        } else {
+            state.endsAt = fresh.endsAt;
+            // A seller moved the end out after the old one had already sealed bidding
+            if (state.endsAt.isAfter(LocalDateTime.now())) state.sealed = false;
+        }
+        publish(listingId, state, true);
+    }
+
+    // Runs on the lane thread once the listing has left ACTIVE
+    private void close(Map<Integer, AuctionState> states, Integer listingId) {
+        AuctionState state = states.remove(listingId);
+        snapshots.remove(listingId);
+        if (state != null) {
+            state.open = false;
+            state.version++;
+            eventPublisher.publishEvent(new AuctionUpdatedEvent(state.toDto(listingId, minIncrement)));
+        }
+    }
+
+    private AuctionStateDto publish(Integer listingId, AuctionState state, boolean changed) {
+        if (changed) state.version++;
+        AuctionStateDto dto = state.toDto(listingId, minIncrement);
+        snapshots.put(listingId, dto);
+        if (changed) eventPublisher.publishEvent(new AuctionUpdatedEvent(dto));
+        return dto;
+    }
+
+    private AuctionState load(Integer listingId) {
+        List<AuctionState> rows = jdbcTemplate.query(LISTING_SQL, (rs, i) -> {
+            AuctionState state = new AuctionState();
+            Timestamp auctionEnd = rs.getTimestamp("auction_end_date");
+            Timestamp expiresAt = rs.getTimestamp("expires_at");
+            state.open = "ACTIVE".equals(rs.getString("listing_status"))
+                    && "AUCTION".equals(rs.getString("listing_type")) && auctionEnd != null;
+            state.minimumPrice = rs.getBigDecimal("minimum_price");
+            state.sellerUserId = rs.getLong("seller_user_id");
+            if (auctionEnd != null) {
+                state.endsAt = expiresAt != null && expiresAt.before(auctionEnd)
+                        ? expiresAt.toLocalDateTime() : auctionEnd.toLocalDateTime();
+            }
+            return state;
+        }, listingId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Listing not found with id: " + listingId);
+        }
+        AuctionState state = rows.get(0);
+        jdbcTemplate.query(TOP_BID_SQL, rs -> {
+            state.bidCount = rs.getInt("bid_number");
+            state.leaderUserId = rs.getLong("bidder_user_id");
+            state.highBid = rs.getBigDecimal("amount");
+        }, listingId);
+        return state;
+    }
+
+    private Lane lane(int listingId) {
+        return lanes[Math.floorMod(listingId, lanes.length)];
+    }
+
+    private <T> CompletableFuture<T> onLane(Integer listingId, Function<Map<Integer, AuctionState>, T> task) {
+        Lane lane = lane(listingId);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            lane.executor.execute(() -> {
+                lane.runControl();
+                try {
+                    result.complete(task.apply(lane.states));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            busy.incrementAndGet();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    // Control actions are never dropped: if the lane queue is full they run ahead of its next task
+    private void control(Lane lane, Consumer<Map<Integer, AuctionState>> action) {
+        lane.control.add(() -> action.accept(lane.states));
+        try {
+            lane.executor.execute(lane::runControl);
+        } catch (RejectedExecutionException e) {
+            // Already queued tasks drain the control queue first
+        }
+    }
+
+    private static final class Lane {
+        private final ThreadPoolExecutor executor;
+        // Only touched by this lane's thread
+        private final Map<Integer, AuctionState> states = new HashMap<>();
+        private final ConcurrentLinkedQueue<Runnable> control = new ConcurrentLinkedQueue<>();
+
+        private Lane(int index, int queueCapacity) {
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "auction-lane-" + index);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        private void runControl() {
+            Runnable action;
+            while ((action = control.poll()) != null) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    log.error("Auction lane control action failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Confined to one lane thread
+    private static final class AuctionState {
+        private boolean open;
+        private boolean sealed;
+        private LocalDateTime endsAt;
+        private BigDecimal minimumPrice;
+        private Long sellerUserId;
+        private BigDecimal highBid;
+        private Long leaderUserId;
+        private int bidCount;
+        private long version;
+
+        private BigDecimal minimumNextBid(BigDecimal increment) {
+            return highBid == null ? OPENING_BID : highBid.add(increment);
+        }
+
+        private AuctionStateDto toDto(Integer listingId, BigDecimal increment) {
+            boolean reserveMet = highBid != null && (minimumPrice == null || highBid.compareTo(minimumPrice) >= 0);
+            return new AuctionStateDto(listingId, open && !sealed, highBid,
+                    open && !sealed ? minimumNextBid(increment) : null,
+                    bidCount, reserveMet, endsAt, version);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.farmtech.livestock.service;
 import com.farmtech.livestock.dto.AuthResponse;
 import com.farmtech.livestock.dto.LoginRequest;
 import com.farmtech.livestock.dto.RegisterRequest;
+import com.farmtech.livestock.event.UserRegisteredEvent;
 import com.farmtech.livestock.model.FarmerProfile;
 import com.farmtech.livestock.model.User;
 import com.farmtech.livestock.model.UserRole;
@@ -10,23 +11,30 @@ import com.farmtech.livestock.repository.FarmerProfileRepository;
 
 import com.farmtech.livestock.repository.UserRepository;
 import com.farmtech.livestock.repository.UserRoleRepository;
+import com.farmtech.livestock.security.JwtService;
+import com.farmtech.livestock.security.PasswordVerificationService;
+import com.farmtech.livestock.security.RefreshTokenStore;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -39,18 +47,28 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    // JWT Configuration
-    @Value("${jwt.secret:farmtech-livestock-secret-key-that-should-be-at-least-32-characters-long}")
-    private String jwtSecret;
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PasswordVerificationService passwordVerificationService;
 
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+
+    // JWT Configuration (signing keys live in JwtService)
     @Value("${jwt.expiration:86400}") // 24 hours
     private Long jwtExpirationTime;
 
     @Value("${jwt.refresh.expiration:604800}") // 7 days
     private Long refreshTokenExpirationTime;
 
-    // In-memory refresh token store
-    private final Set<String> validRefreshTokens = ConcurrentHashMap.newKeySet();
+    // Issued refresh tokens, keyed by hashed jti (in-memory or database, see jwt.refresh.store)
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public AuthResponse register(RegisterRequest registerRequest) {
         validateRegisterRequest(registerRequest);
@@ -88,17 +106,21 @@ public class AuthService {
                 farmerProfile.setUser(savedUser);
                 farmerProfileRepository.save(farmerProfile);
             }
+            eventPublisher.publishEvent(new UserRegisteredEvent(roleEnum));
 
             return createAuthResponse(savedUser);
 
         } catch (Exception e) {
-            System.err.println("Error during registration: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error during registration: {}", e.getMessage(), e);
             throw new RuntimeException("Registration failed: " + e.getMessage());
         }
     }
 
-    public AuthResponse login(LoginRequest loginRequest) {
+    /**
+     * Looks the user up on the calling thread, then verifies the password on the bounded hashing pool.
+     * Throws RejectedExecutionException when that pool is saturated.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest loginRequest) {
         if (loginRequest.getEmail() == null || loginRequest.getEmail().trim().isEmpty()) {
             throw new RuntimeException("Email is required");
         }
@@ -107,32 +129,25 @@ public class AuthService {
             throw new RuntimeException("Password is required");
         }
 
-        try {
-            Optional<User> userOptional = userRepository.findByEmailAndActive(
-                    loginRequest.getEmail().trim().toLowerCase(), true);
-
-            if (userOptional.isEmpty()) {
-                throw new RuntimeException("Invalid email or password");
-            }
+        Optional<User> userOptional = userRepository.findByEmailAndActive(
+                loginRequest.getEmail().trim().toLowerCase(), true);
 
-            User user = userOptional.get();
+        if (userOptional.isEmpty()) {
+            throw new RuntimeException("Invalid email or password");
+        }
 
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                throw new RuntimeException("Invalid email or password");
-            }
+        User user = userOptional.get();
 
-            user.setLastLoginDate(new Date());
-            userRepository.save(user);
+        return passwordVerificationService.matches(loginRequest.getPassword(), user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new RuntimeException("Invalid email or password");
+                    }
 
-            return createAuthResponse(user);
+                    lastLoginRecorder.record(user.getId(), new Date());
 
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            System.err.println("Login error: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Login failed: " + e.getMessage());
-        }
+                    return createAuthResponse(user);
+                });
     }
 
     public Long getUserIdByEmail(String email) {
@@ -151,8 +166,15 @@ public class AuthService {
             throw new RuntimeException("Invalid refresh token");
         }
 
-        validRefreshTokens.remove(refreshToken);
-        System.out.println("Logout successful for token: " + refreshToken);
+        try {
+            String tokenId = validateJwtToken(refreshToken).getId();
+            if (tokenId != null) {
+                refreshTokenStore.revoke(tokenId);
+            }
+        } catch (RuntimeException e) {
+            // Expired or invalid tokens can no longer be used anyway
+        }
+        log.debug("Logout successful");
     }
 
     public AuthResponse refreshToken(String refreshToken) {
@@ -163,7 +185,8 @@ public class AuthService {
         try {
             Claims claims = validateJwtToken(refreshToken);
 
-            if (!validRefreshTokens.contains(refreshToken)) {
+            // One-time use: consuming the id also invalidates it for every other node
+            if (claims.getId() == null || !refreshTokenStore.consume(claims.getId())) {
                 throw new RuntimeException("Refresh token not found or expired");
             }
 
@@ -176,12 +199,10 @@ public class AuthService {
                 throw new RuntimeException("User account is inactive");
             }
 
-            validRefreshTokens.remove(refreshToken);
-
             return createAuthResponse(user);
 
         } catch (Exception e) {
-            System.err.println("Refresh token error: " + e.getMessage());
+            log.warn("Refresh token error: {}", e.getMessage());
             throw new RuntimeException("Invalid refresh token");
         }
     }
@@ -193,52 +214,35 @@ public class AuthService {
     // ===================== JWT Methods =====================
 
     private String generateAccessToken(User user) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationTime * 1000);
-
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .claim("userId", user.getId())
-                .claim("username", user.getUsername())
-                .claim("email", user.getEmail())
-                .claim("role", user.getRole().getRoleName().name())
-                .claim("tokenType", "access")
-                .signWith(getSigningKey())
-                .compact();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId());
+        claims.put("username", user.getUsername());
+        claims.put("email", user.getEmail());
+        claims.put("role", user.getRole().getRoleName().name());
+        claims.put("tokenType", "access");
+
+        return jwtService.sign(claims, user.getEmail(), jwtExpirationTime * 1000);
     }
 
     private String generateRefreshToken(User user) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + refreshTokenExpirationTime * 1000);
+        String tokenId = UUID.randomUUID().toString();
+        long expirationMillis = refreshTokenExpirationTime * 1000;
 
-        String refreshToken = Jwts.builder()
-                .setSubject(user.getEmail())
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .claim("userId", user.getId())
-                .claim("tokenType", "refresh")
-                .signWith(getSigningKey())
-                .compact();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(Claims.ID, tokenId);
+        claims.put("userId", user.getId());
+        claims.put("tokenType", "refresh");
 
-        validRefreshTokens.add(refreshToken);
+        String refreshToken = jwtService.sign(claims, user.getEmail(), expirationMillis);
 
-        return refreshToken;
-    }
+        refreshTokenStore.store(tokenId, user.getId(), Instant.now().plusMillis(expirationMillis));
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return refreshToken;
     }
 
     public Claims validateJwtToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return jwtService.parseToken(token).getClaims();
         } catch (ExpiredJwtException e) {
             throw new RuntimeException("Token has expired");
         } catch (UnsupportedJwtException e) {
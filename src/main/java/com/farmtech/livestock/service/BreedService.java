@@ -2,11 +2,13 @@ package com.farmtech.livestock.service;
 
 import com.farmtech.livestock.dto.BreedRequestDTO;
 import com.farmtech.livestock.dto.BreedResponseDTO;
+import com.farmtech.livestock.event.RecordCountChangedEvent;
 import com.farmtech.livestock.model.LivestockBreed;
 import com.farmtech.livestock.model.LivestockCategory;
 import com.farmtech.livestock.repository.LivestockBreedRepository;
 import com.farmtech.livestock.repository.LivestockCategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +25,9 @@ public class BreedService {
     @Autowired
     private LivestockCategoryRepository categoryRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<BreedResponseDTO> getAllBreeds() {
         return breedRepository.findAll()
                 .stream()
@@ -44,6 +49,7 @@ public class BreedService {
         breed.setCategory(category);
 
         LivestockBreed saved = breedRepository.save(breed);
+        eventPublisher.publishEvent(RecordCountChangedEvent.created(RecordCountChangedEvent.CountedRecord.BREED));
         return mapToDTO(saved);
     }
 
@@ -69,6 +75,7 @@ public class BreedService {
         LivestockBreed breed = breedRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Breed not found with ID: " + id));
         breedRepository.delete(breed);
+        eventPublisher.publishEvent(RecordCountChangedEvent.deleted(RecordCountChangedEvent.CountedRecord.BREED));
     }
 
     // ------------------------ Mapping Helpers ------------------------
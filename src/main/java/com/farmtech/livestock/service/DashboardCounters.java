@@ -0,0 +1,159 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.event.RecordCountChangedEvent;
+import com.farmtech.livestock.event.UserDeactivatedEvent;
+import com.farmtech.livestock.event.UserRegisteredEvent;
+import com.farmtech.livestock.model.UserRole.RoleName;
+import com.farmtech.livestock.repository.HealthRecordRepository;
+import com.farmtech.livestock.repository.LivestockBreedRepository;
+import com.farmtech.livestock.repository.LivestockRepository;
+import com.farmtech.livestock.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory admin dashboard counters. Kept current from domain events published by the register,
+ * delete and create paths (applied after commit), and periodically reset from the database to
+ * correct any drift, e.g. from rows changed outside the application.
+ */
+@Component
+public class DashboardCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardCounters.class);
+
+    private final UserRepository userRepository;
+    private final LivestockBreedRepository breedRepository;
+    private final LivestockRepository livestockRepository;
+    private final HealthRecordRepository healthRecordRepository;
+
+    private final Map<RoleName, AtomicLong> activeUsersByRole = new EnumMap<>(RoleName.class);
+    private final Map<RoleName, AtomicLong> usersByRole = new EnumMap<>(RoleName.class);
+    private final AtomicLong breeds = new AtomicLong();
+    private final AtomicLong livestock = new AtomicLong();
+    private final AtomicLong healthRecords = new AtomicLong();
+
+    private volatile boolean loaded;
+
+    public DashboardCounters(UserRepository userRepository,
+                             LivestockBreedRepository breedRepository,
+                             LivestockRepository livestockRepository,
+                             HealthRecordRepository healthRecordRepository) {
+        this.userRepository = userRepository;
+        this.breedRepository = breedRepository;
+        this.livestockRepository = livestockRepository;
+        this.healthRecordRepository = healthRecordRepository;
+        for (RoleName role : RoleName.values()) {
+            activeUsersByRole.put(role, new AtomicLong());
+            usersByRole.put(role, new AtomicLong());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        usersByRole.get(event.getRole()).incrementAndGet();
+        activeUsersByRole.get(event.getRole()).incrementAndGet();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeactivated(UserDeactivatedEvent event) {
+        activeUsersByRole.get(event.getRole()).decrementAndGet();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecordCountChanged(RecordCountChangedEvent event) {
+        counterFor(event.getRecord()).addAndGet(event.getDelta());
+    }
+
+    // Active users per role
+    public long activeUsers(RoleName role) {
+        ensureLoaded();
+        return activeUsersByRole.get(role).get();
+    }
+
+    // All user rows per role, including soft-deleted ones; roles without users are omitted
+    public Map<String, Long> usersByRole() {
+        ensureLoaded();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        usersByRole.forEach((role, count) -> {
+            if (count.get() > 0) counts.put(role.name(), count.get());
+        });
+        return counts;
+    }
+
+    public long breeds() {
+        ensureLoaded();
+        return breeds.get();
+    }
+
+    public long livestock() {
+        ensureLoaded();
+        return livestock.get();
+    }
+
+    public long healthRecords() {
+        ensureLoaded();
+        return healthRecords.get();
+    }
+
+    // ✅ Reset every counter from the database: one grouped user count plus three table counts
+    @Scheduled(fixedDelayString = "${dashboard.counters.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Map<RoleName, Long> active = new EnumMap<>(RoleName.class);
+        Map<RoleName, Long> all = new EnumMap<>(RoleName.class);
+        for (Object[] row : userRepository.countGroupedByRoleAndActive()) {
+            RoleName role = (RoleName) row[0];
+            long count = (Long) row[2];
+            all.merge(role, count, Long::sum);
+            if (Boolean.TRUE.equals(row[1])) {
+                active.merge(role, count, Long::sum);
+            }
+        }
+        long breedCount = breedRepository.count();
+        long livestockCount = livestockRepository.count();
+        long healthRecordCount = healthRecordRepository.count();
+
+        long drift = 0;
+        for (RoleName role : RoleName.values()) {
+            drift += Math.abs(activeUsersByRole.get(role).getAndSet(active.getOrDefault(role, 0L)) - active.getOrDefault(role, 0L));
+            drift += Math.abs(usersByRole.get(role).getAndSet(all.getOrDefault(role, 0L)) - all.getOrDefault(role, 0L));
+        }
+        drift += Math.abs(breeds.getAndSet(breedCount) - breedCount);
+        drift += Math.abs(livestock.getAndSet(livestockCount) - livestockCount);
+        drift += Math.abs(healthRecords.getAndSet(healthRecordCount) - healthRecordCount);
+
+        if (loaded && drift > 0) {
+            log.info("Dashboard counters reconciled, corrected drift of {}", drift);
+        }
+        loaded = true;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reconcile();
+        }
+    }
+
+    private AtomicLong counterFor(RecordCountChangedEvent.CountedRecord record) {
+        switch (record) {
+            case BREED:
+                return breeds;
+            case LIVESTOCK:
+                return livestock;
+            default:
+                return healthRecords;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.AuctionStateDto;
+import com.farmtech.livestock.event.AuctionUpdatedEvent;
+import com.farmtech.livestock.event.HealthRecordAddedEvent;
+import com.farmtech.livestock.event.LivestockStatusChangedEvent;
+import com.farmtech.livestock.event.RecordCountChangedEvent;
+import com.farmtech.livestock.event.UserDeactivatedEvent;
+import com.farmtech.livestock.event.UserRegisteredEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events fan-out for the dashboards. Subscribers are async servlet responses, so no
+ * thread is parked per connection; a single dispatcher thread serializes each event once and queues
+ * it for every subscriber whose role (and, for farmers, ownership) matches the topic.
+ * <p>
+ * Each subscriber has its own bounded queue, drained by a small writer pool with at most one drain
+ * in flight per subscriber, so a slow client only delays itself. A client whose queue overflows has
+ * fallen too far behind and is disconnected; the browser's EventSource reconnects and reloads.
+ * <p>
+ * A stream opened with an auction listing id also receives that auction's {@value #AUCTION} updates,
+ * whatever the caller's role. Watchers are indexed per listing, and updates queued for a listing
+ * are coalesced so a burst of bids sends only the latest state.
+ */
+@Component
+public class DashboardEventBroadcaster {
+
+    public static final String HEALTH_RECORD = "health-record";
+    public static final String LIVESTOCK_STATUS = "livestock-status";
+    public static final String COUNTERS = "counters";
+    public static final String AUCTION = "auction";
+
+    // Roles allowed on each topic; farmers only receive status changes for their own livestock
+    private static final Map<String, Set<String>> TOPIC_ROLES = Map.of(
+            HEALTH_RECORD, Set.of("VETERINARIAN", "ADMIN"),
+            LIVESTOCK_STATUS, Set.of("FARMER", "VETERINARIAN", "ADMIN"),
+            COUNTERS, Set.of("ADMIN"));
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardEventBroadcaster.class);
+
+    private final DashboardService dashboardService;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final int maxSubscribers;
+    private final int subscriberQueueCapacity;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor dispatcher;
+    // One drain task per subscriber at most, so the task queue is bounded by maxSubscribers
+    private final ThreadPoolExecutor writers;
+    private final AtomicBoolean countersPending = new AtomicBoolean();
+    private final ConcurrentHashMap<Integer, Set<Subscriber>> auctionWatchers = new ConcurrentHashMap<>();
+    // Latest undelivered state per auction; a dispatch is queued only when the slot was empty
+    private final ConcurrentHashMap<Integer, AuctionStateDto> auctionPending = new ConcurrentHashMap<>();
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public DashboardEventBroadcaster(DashboardService dashboardService, ObjectMapper objectMapper,
+                                     @Value("${events.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                                     @Value("${events.max-subscribers:10000}") int maxSubscribers,
+                                     @Value("${events.dispatch-queue-capacity:10000}") int queueCapacity,
+                                     @Value("${events.subscriber-queue-capacity:64}") int subscriberQueueCapacity,
+                                     @Value("${events.writer-threads:4}") int writerThreads) {
+        this.dashboardService = dashboardService;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                daemonThreads("dashboard-events"));
+        this.writers = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                daemonThreads("dashboard-events-writer"));
+    }
+
+    public SseEmitter subscribe(String email, String role) {
+        return subscribe(email, role, null);
+    }
+
+    // auctionListingId, when set, adds that auction's updates to the stream
+    public SseEmitter subscribe(String email, String role, Integer auctionListingId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Too many event stream subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, email, role, auctionListingId, subscriberQueueCapacity);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> {
+            remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        if (auctionListingId != null) {
+            auctionWatchers.computeIfAbsent(auctionListingId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        }
+
+        try {
+            emitter.send(SseEmitter.event().name("connected").data(role));
+        } catch (IOException e) {
+            remove(subscriber);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthRecordAdded(HealthRecordAddedEvent event) {
+        publish(HEALTH_RECORD, event.getRecord(), null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLivestockStatusChanged(LivestockStatusChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("livestockId", event.getLivestockId());
+        payload.put("previousStatus", event.getPreviousStatus());
+        payload.put("currentStatus", event.getCurrentStatus());
+        publish(LIVESTOCK_STATUS, payload, event.getOwnerEmail());
+    }
+
+    // Counter pushes run after DashboardCounters has applied the same event, and are coalesced
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecordCountChanged(RecordCountChangedEvent event) {
+        scheduleCountersPush();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        scheduleCountersPush();
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeactivated(UserDeactivatedEvent event) {
+        scheduleCountersPush();
+    }
+
+    // Only the newest state per auction is kept while a push is queued
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuctionUpdated(AuctionUpdatedEvent event) {
+        Integer listingId = event.getState().getListingId();
+        if (!auctionWatchers.containsKey(listingId)) return;
+        if (auctionPending.put(listingId, event.getState()) == null) {
+            boolean queued = dispatch(() -> sendAuction(listingId));
+            if (!queued) auctionPending.remove(listingId);
+        }
+    }
+
+    // Keeps proxies and load balancers from closing idle streams
+    @Scheduled(fixedDelayString = "${events.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) return;
+        dispatch(() -> {
+            for (Subscriber subscriber : subscribers) {
+                deliver(subscriber, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("subscribers", (long) subscribers.size());
+        stats.put("watchedAuctions", (long) auctionWatchers.size());
+        stats.put("maxSubscribers", (long) maxSubscribers);
+        stats.put("queued", (long) dispatcher.getQueue().size());
+        stats.put("pendingDrains", (long) writers.getQueue().size());
+        stats.put("delivered", delivered.get());
+        stats.put("dropped", dropped.get());
+        stats.put("disconnected", disconnected.get());
+        stats.put("overflowed", overflowed.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        auctionWatchers.clear();
+    }
+
+    private void scheduleCountersPush() {
+        if (subscribers.isEmpty()) return;
+        if (countersPending.compareAndSet(false, true)) {
+            boolean queued = dispatch(() -> {
+                countersPending.set(false);
+                send(COUNTERS, dashboardService.getDashboardStats(), null);
+            });
+            if (!queued) countersPending.set(false);
+        }
+    }
+
+    private void publish(String topic, Object payload, String ownerEmail) {
+        if (subscribers.isEmpty()) return;
+        dispatch(() -> send(topic, payload, ownerEmail));
+    }
+
+    // A full queue drops the event rather than blocking the publishing request
+    private boolean dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            return false;
+        }
+    }
+
+    // Runs on the dispatcher thread; the payload is serialized once for all subscribers
+    private void send(String topic, Object payload, String ownerEmail) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} event: {}", topic, e.getMessage());
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(topic, ownerEmail)) {
+                deliver(subscriber, SseEmitter.event().name(topic).data(json));
+            }
+        }
+    }
+
+    // Runs on the dispatcher thread; only this auction's watchers are visited
+    private void sendAuction(Integer listingId) {
+        AuctionStateDto state = auctionPending.remove(listingId);
+        Set<Subscriber> watchers = auctionWatchers.get(listingId);
+        if (state == null || watchers == null) return;
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} event: {}", AUCTION, e.getMessage());
+            return;
+        }
+        for (Subscriber subscriber : watchers) {
+            deliver(subscriber, SseEmitter.event().name(AUCTION).data(json));
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        if (subscriber.auctionListingId != null) {
+            auctionWatchers.computeIfPresent(subscriber.auctionListingId, (id, watchers) -> {
+                watchers.remove(subscriber);
+                return watchers.isEmpty() ? null : watchers;
+            });
+        }
+    }
+
+    // Runs on the dispatcher thread; never blocks on the client
+    private void deliver(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.queue.offer(event)) {
+            if (subscribers.contains(subscriber)) {
+                overflowed.incrementAndGet();
+                disconnect(subscriber);
+            }
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Only during shutdown
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // Runs on a writer thread; only this subscriber's own sends can be slow here
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event);
+                    delivered.incrementAndGet();
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; drop it without failing anyone else's stream
+                    disconnect(subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event queued after the last poll but before the flag cleared would otherwise wait for the next one
+            if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            disconnected.incrementAndGet();
+        }
+        remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicLong count = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final String email;
+        private final String role;
+        private final Integer auctionListingId;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        // Set while a writer owns this subscriber's queue
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, String email, String role, Integer auctionListingId, int queueCapacity) {
+            this.emitter = emitter;
+            this.email = email;
+            this.role = role;
+            this.auctionListingId = auctionListingId;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        private boolean accepts(String topic, String ownerEmail) {
+            Set<String> roles = TOPIC_ROLES.get(topic);
+            if (roles == null || !roles.contains(role)) return false;
+            return !"FARMER".equals(role) || (ownerEmail != null && ownerEmail.equalsIgnoreCase(email));
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.farmtech.livestock.service;
 
 import com.farmtech.livestock.model.UserRole.RoleName;
-import com.farmtech.livestock.repository.LivestockBreedRepository;
-import com.farmtech.livestock.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -12,25 +10,25 @@ import java.util.Map;
 @Service
 public class DashboardService {
 
-    private final UserRepository userRepository;
-    private final LivestockBreedRepository livestockBreedRepository;
+    private final DashboardCounters dashboardCounters;
 
     @Autowired
-    public DashboardService(UserRepository userRepository,
-                            LivestockBreedRepository livestockBreedRepository) {
-        this.userRepository = userRepository;
-        this.livestockBreedRepository = livestockBreedRepository;
+    public DashboardService(DashboardCounters dashboardCounters) {
+        this.dashboardCounters = dashboardCounters;
     }
 
+    // ✅ Served from in-memory counters; no database round trip per page load
     public Map<String, Long> getDashboardStats() {
-        long totalFarmers = userRepository.countByRoleName(RoleName.FARMER);
-        long totalVets = userRepository.countByRoleName(RoleName.VETERINARIAN);
-        long totalBreeds = livestockBreedRepository.count();
+        long totalFarmers = dashboardCounters.activeUsers(RoleName.FARMER);
+        long totalVets = dashboardCounters.activeUsers(RoleName.VETERINARIAN);
+        long totalBreeds = dashboardCounters.breeds();
 
         Map<String, Long> stats = new HashMap<>();
         stats.put("totalFarmers", totalFarmers);
         stats.put("totalVets", totalVets);
         stats.put("totalBreeds", totalBreeds);
+        stats.put("totalLivestock", dashboardCounters.livestock());
+        stats.put("totalHealthRecords", dashboardCounters.healthRecords());
 
         return stats;
     }
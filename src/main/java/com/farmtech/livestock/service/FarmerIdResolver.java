@@ -0,0 +1,85 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.event.UserAccountChangedEvent;
+import com.farmtech.livestock.repository.FarmerProfileRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the caller's farmer_id from their email once and caches it, so livestock
+ * queries can filter on livestock.farmer_id instead of joining farmer_profiles and users.
+ * Callers without a farmer profile (admins, vets) are cached too, as {@link #NO_FARMER}.
+ * The cache is bounded, entries expire after a TTL, and an account change drops its emails
+ * once it commits.
+ */
+@Component
+public class FarmerIdResolver {
+
+    // Never a real farmer_id (ids start at 1), so queries scoped to it match no rows
+    public static final int NO_FARMER = 0;
+
+    private final FarmerProfileRepository farmerProfileRepository;
+    private final ConcurrentHashMap<String, Entry> farmerIdByEmail = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public FarmerIdResolver(FarmerProfileRepository farmerProfileRepository,
+                            @Value("${livestock.farmer-id-cache.ttl-seconds:600}") long ttlSeconds,
+                            @Value("${livestock.farmer-id-cache.max-size:10000}") int maxSize) {
+        this.farmerProfileRepository = farmerProfileRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    // The caller's farmer_id; fails for callers without a farmer profile
+    public Integer resolve(String email) {
+        return find(email).orElseThrow(() -> new RuntimeException("Farmer profile not found for: " + email));
+    }
+
+    public Optional<Integer> find(String email) {
+        Entry entry = farmerIdByEmail.get(email);
+        long now = System.currentTimeMillis();
+        if (entry == null || entry.expiresAt <= now) {
+            int farmerId = farmerProfileRepository.findFarmerIdByUserEmail(email).orElse(NO_FARMER);
+            if (farmerIdByEmail.size() >= maxSize) {
+                evict(now);
+            }
+            entry = new Entry(farmerId, now + ttlMillis);
+            farmerIdByEmail.put(email, entry);
+        }
+        return entry.farmerId == NO_FARMER ? Optional.empty() : Optional.of(entry.farmerId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        event.getEmails().forEach(this::evict);
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            farmerIdByEmail.remove(email);
+        }
+    }
+
+    // Drop expired entries; if still full, start over rather than track insertion order for a cheap lookup
+    private void evict(long now) {
+        farmerIdByEmail.values().removeIf(entry -> entry.expiresAt <= now);
+        if (farmerIdByEmail.size() >= maxSize) {
+            farmerIdByEmail.clear();
+        }
+    }
+
+    private static final class Entry {
+        private final int farmerId;
+        private final long expiresAt;
+
+        private Entry(int farmerId, long expiresAt) {
+            this.farmerId = farmerId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
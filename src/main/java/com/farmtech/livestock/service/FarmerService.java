@@ -2,53 +2,60 @@ package com.farmtech.livestock.service;
 
 import com.farmtech.livestock.dto.FarmerProfileDto;
 import com.farmtech.livestock.dto.SimpleLivestockDto;
-import com.farmtech.livestock.model.FarmerProfile;
+import com.farmtech.livestock.model.UserRole;
 import com.farmtech.livestock.repository.FarmerProfileRepository;
+import com.farmtech.livestock.repository.LivestockRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class FarmerService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final FarmerProfileRepository farmerProfileRepository;
+    private final LivestockRepository livestockRepository;
 
     @Autowired
-    public FarmerService(FarmerProfileRepository farmerProfileRepository) {
+    public FarmerService(FarmerProfileRepository farmerProfileRepository,
+                         LivestockRepository livestockRepository) {
         this.farmerProfileRepository = farmerProfileRepository;
+        this.livestockRepository = livestockRepository;
     }
 
-    public List<FarmerProfileDto> getAllFarmers() {
-        return farmerProfileRepository.findAll()
-                .stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
-    }
-
-    private FarmerProfileDto mapToDto(FarmerProfile farmer) {
-        List<SimpleLivestockDto> livestockDTOs = farmer.getLivestock()
-                .stream()
-                .map(l -> new SimpleLivestockDto(
-                        l.getLivestockId(),
-                        l.getName(),
-                        l.getCategory().getName(),
-                        l.getBreed().getName()
-                ))
-                .collect(Collectors.toList());
-
-        return new FarmerProfileDto(
-                farmer.getFarmerId().longValue(),
-                farmer.getUser().getFirstName(),
-                farmer.getUser().getLastName(),
-
-                farmer.getFarmName(),
-
-                farmer.getUser().getPhoneNumber(),
-                farmer.getUser().getEmail(),
-
-                livestockDTOs
-        );
+    // ✅ Two queries per page regardless of farmer/livestock counts:
+    // FARMER users with their profile, then all their livestock grouped in memory
+    @Transactional(readOnly = true)
+    public List<FarmerProfileDto> getAllFarmers(int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<FarmerProfileDto> farmers = farmerProfileRepository
+                .findFarmerSummaries(UserRole.RoleName.FARMER, PageRequest.of(Math.max(page, 0), pageSize));
+
+        Map<Integer, FarmerProfileDto> byFarmerId = new HashMap<>();
+        for (FarmerProfileDto farmer : farmers) {
+            if (farmer.getFarmerId() != null) {
+                byFarmerId.put(farmer.getFarmerId(), farmer);
+            }
+        }
+        if (byFarmerId.isEmpty()) {
+            return farmers;
+        }
+
+        for (Object[] row : livestockRepository.findSimpleRowsByFarmerIds(byFarmerId.keySet())) {
+            FarmerProfileDto farmer = byFarmerId.get((Integer) row[0]);
+            farmer.getLivestock().add(new SimpleLivestockDto(
+                    (Integer) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    (String) row[4]
+            ));
+        }
+        return farmers;
     }
 }
@@ -1,22 +1,42 @@
 package com.farmtech.livestock.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.farmtech.livestock.dto.CursorPageDto;
 import com.farmtech.livestock.dto.HealthRecordDto;
+import com.farmtech.livestock.event.HealthRecordAddedEvent;
+import com.farmtech.livestock.event.HealthRecordChangedEvent;
+import com.farmtech.livestock.event.RecordCountChangedEvent;
 import com.farmtech.livestock.model.HealthRecord;
 import com.farmtech.livestock.model.Livestock;
 import com.farmtech.livestock.repository.HealthRecordRepository;
 import com.farmtech.livestock.repository.LivestockRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class HealthRecordService {
 
+    private static final int MAX_FEED_SIZE = 100;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final String CURSOR_PREFIX = "hr:";
+    // Column lengths of health_record_symptoms.symptom and health_record_medications.medication
+    private static final int MAX_SYMPTOM_LENGTH = 100;
+    private static final int MAX_MEDICATION_LENGTH = 200;
+
     @Autowired
     private HealthRecordRepository healthRecordRepository;
 
@@ -24,9 +44,19 @@ public class HealthRecordService {
     private LivestockRepository livestockRepository;
 
     @Autowired
-    private ObjectMapper objectMapper; // For converting lists to JSON
+    private ObjectMapper objectMapper; // For writing the NDJSON stream
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private HealthSummaryService healthSummaryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     // Create a new health record
+    @Transactional
     public HealthRecord addHealthRecord(HealthRecordDto dto) {
         // Validate that livestock exists
         Livestock livestock = livestockRepository.findById(dto.getLivestockId())
@@ -61,9 +91,8 @@ public class HealthRecordService {
         record.setWeightKg(dto.getWeightKg());
         record.setBodyConditionScore(dto.getBodyConditionScore());
 
-        // Convert lists to JSON for DB storage
-        record.setSymptoms(convertListToJson(dto.getSymptoms()));
-        record.setMedicationsPrescribed(convertListToJson(dto.getMedicationsPrescribed()));
+        record.setSymptoms(cleanTerms(dto.getSymptoms(), MAX_SYMPTOM_LENGTH, "Symptom"));
+        record.setMedicationsPrescribed(cleanTerms(dto.getMedicationsPrescribed(), MAX_MEDICATION_LENGTH, "Medication"));
 
         record.setDiagnosis(dto.getDiagnosis());
         record.setTreatmentGiven(dto.getTreatmentGiven());
@@ -72,12 +101,43 @@ public class HealthRecordService {
         record.setFollowUpDate(dto.getFollowUpDate());
         record.setConsultationFee(dto.getConsultationFee());
 
-        return healthRecordRepository.save(record);
+        HealthRecord saved = healthRecordRepository.saveAndFlush(record);
+        healthSummaryService.recordAdded(saved);
+        eventPublisher.publishEvent(HealthRecordChangedEvent.created(saved));
+        eventPublisher.publishEvent(RecordCountChangedEvent.created(RecordCountChangedEvent.CountedRecord.HEALTH_RECORD));
+        eventPublisher.publishEvent(new HealthRecordAddedEvent(mapToDto(saved)));
+        return saved;
     }
 
-    // Get all health records (for vet dashboard)
-    public List<HealthRecord> getAllHealthRecords() {
-        return healthRecordRepository.findAll();
+    // ✅ Vet dashboard feed: newest first, one keyset page per call
+    public CursorPageDto<HealthRecordDto> getHealthRecordFeed(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_SIZE));
+        Slice<HealthRecord> slice = healthRecordRepository
+                .findFeedSliceBefore(decodeCursor(cursor), PageRequest.of(0, pageSize));
+
+        List<HealthRecord> records = slice.getContent();
+        String nextCursor = slice.hasNext() && !records.isEmpty()
+                ? encodeCursor(records.get(records.size() - 1).getHealthRecordId())
+                : null;
+        List<HealthRecordDto> items = records.stream().map(this::mapToDto).toList();
+        return new CursorPageDto<>(items, nextCursor, slice.hasNext());
+    }
+
+    // ✅ Full history as NDJSON, one line per record, written chunk by chunk.
+    // The persistence context is cleared after each chunk so memory stays flat.
+    public void streamHealthRecords(OutputStream out) throws IOException {
+        int beforeId = Integer.MAX_VALUE;
+        Slice<HealthRecord> slice;
+        do {
+            slice = healthRecordRepository.findFeedSliceBefore(beforeId, PageRequest.of(0, STREAM_CHUNK_SIZE));
+            for (HealthRecord record : slice.getContent()) {
+                out.write(objectMapper.writeValueAsBytes(mapToDto(record)));
+                out.write('\n');
+                beforeId = record.getHealthRecordId();
+            }
+            out.flush();
+            entityManager.clear();
+        } while (slice.hasNext());
     }
 
     // Get all health records for a specific livestock
@@ -92,9 +152,12 @@ public class HealthRecordService {
     }
 
     // Update an existing health record
+    @Transactional
     public HealthRecord updateHealthRecord(Integer recordId, HealthRecordDto dto) {
         HealthRecord existingRecord = healthRecordRepository.findById(recordId)
                 .orElseThrow(() -> new RuntimeException("Health record not found with ID: " + recordId));
+        HealthSummaryService.Contribution before = HealthSummaryService.Contribution.of(existingRecord);
+        HealthRecordChangedEvent.Snapshot previous = HealthRecordChangedEvent.Snapshot.of(existingRecord);
 
         // Update livestock if changed
         if (dto.getLivestockId() != null && !dto.getLivestockId().equals(existingRecord.getLivestock().getLivestockId())) {
@@ -141,10 +204,12 @@ public class HealthRecordService {
             existingRecord.setBodyConditionScore(dto.getBodyConditionScore());
         }
         if (dto.getSymptoms() != null) {
-            existingRecord.setSymptoms(convertListToJson(dto.getSymptoms()));
+            existingRecord.getSymptoms().clear();
+            existingRecord.getSymptoms().addAll(cleanTerms(dto.getSymptoms(), MAX_SYMPTOM_LENGTH, "Symptom"));
         }
         if (dto.getMedicationsPrescribed() != null) {
-            existingRecord.setMedicationsPrescribed(convertListToJson(dto.getMedicationsPrescribed()));
+            existingRecord.getMedicationsPrescribed().clear();
+            existingRecord.getMedicationsPrescribed().addAll(cleanTerms(dto.getMedicationsPrescribed(), MAX_MEDICATION_LENGTH, "Medication"));
         }
         if (dto.getDiagnosis() != null) {
             existingRecord.setDiagnosis(dto.getDiagnosis());
@@ -165,15 +230,24 @@ public class HealthRecordService {
             existingRecord.setConsultationFee(dto.getConsultationFee());
         }
 
-        return healthRecordRepository.save(existingRecord);
+        HealthRecord saved = healthRecordRepository.saveAndFlush(existingRecord);
+        healthSummaryService.recordChanged(before, saved);
+        eventPublisher.publishEvent(new HealthRecordChangedEvent(previous, HealthRecordChangedEvent.Snapshot.of(saved)));
+        return saved;
     }
 
     // Delete a health record
+    @Transactional
     public void deleteHealthRecord(Integer recordId) {
-        if (!healthRecordRepository.existsById(recordId)) {
-            throw new RuntimeException("Health record not found with ID: " + recordId);
-        }
-        healthRecordRepository.deleteById(recordId);
+        HealthRecord record = healthRecordRepository.findById(recordId)
+                .orElseThrow(() -> new RuntimeException("Health record not found with ID: " + recordId));
+        HealthSummaryService.Contribution removed = HealthSummaryService.Contribution.of(record);
+        HealthRecordChangedEvent.Snapshot snapshot = HealthRecordChangedEvent.Snapshot.of(record);
+        healthRecordRepository.delete(record);
+        healthRecordRepository.flush();
+        healthSummaryService.recordRemoved(removed);
+        eventPublisher.publishEvent(HealthRecordChangedEvent.deleted(snapshot));
+        eventPublisher.publishEvent(RecordCountChangedEvent.deleted(RecordCountChangedEvent.CountedRecord.HEALTH_RECORD));
     }
 
     // Get health records by livestock and status
@@ -186,54 +260,66 @@ public class HealthRecordService {
         }
     }
 
+    // ✅ Records listing a symptom within the last N days (index on health_record_symptoms.symptom)
+    public List<HealthRecord> getRecordsWithSymptom(String symptom, Integer days) {
+        if (symptom == null || symptom.isBlank()) {
+            throw new RuntimeException("Symptom is required");
+        }
+        java.time.LocalDate cutoffDate = java.time.LocalDate.now().minusDays(days);
+        return healthRecordRepository.findBySymptomSince(symptom.trim(), cutoffDate);
+    }
+
     // Get recent health records (last 30 days)
     public List<HealthRecord> getRecentHealthRecords(Integer days) {
         java.time.LocalDate cutoffDate = java.time.LocalDate.now().minusDays(days);
         return healthRecordRepository.findByExaminationDateAfter(cutoffDate);
     }
 
-    // Helper: Convert list -> JSON string
-    private String convertListToJson(List<String> list) {
-        if (list == null || list.isEmpty()) return "[]";
+    private String encodeCursor(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Integer decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return Integer.MAX_VALUE;
         try {
-            return objectMapper.writeValueAsString(list);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error converting list to JSON", e);
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) throw new IllegalArgumentException();
+            return Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
         }
     }
 
-    // Helper: Convert JSON string -> list
-    private List<String> convertJsonToList(String json) {
-        if (json == null || json.trim().isEmpty() || "[]".equals(json.trim())) {
-            return List.of();
-        }
-        try {
-            return objectMapper.readValue(json, new TypeReference<List<String>>() {});
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Error converting JSON to list", e);
+    // Helper: trim entries and drop blanks before storing; rejects entries longer than their column
+    private List<String> cleanTerms(List<String> terms, int maxLength, String label) {
+        List<String> cleaned = new ArrayList<>();
+        if (terms == null) return cleaned;
+        for (String term : terms) {
+            if (term != null && !term.isBlank()) {
+                String trimmed = term.trim();
+                if (trimmed.codePointCount(0, trimmed.length()) > maxLength) {
+                    throw new RuntimeException(label + " must be at most " + maxLength + " characters: "
+                            + trimmed.substring(0, 20) + "...");
+                }
+                cleaned.add(trimmed);
+            }
         }
+        return cleaned;
     }
 
-    // Get health statistics for a livestock
+    // Get health statistics for a livestock: one primary-key read of livestock_health_summary
     public HealthRecordStats getHealthRecordStats(Integer livestockId) {
-        List<HealthRecord> records = getHealthRecordsByLivestock(livestockId);
-
-        long totalRecords = records.size();
-        long activeRecords = records.stream()
-                .filter(r -> r.getStatus() == HealthRecord.RecordStatus.ACTIVE)
-                .count();
-        long resolvedRecords = records.stream()
-                .filter(r -> r.getStatus() == HealthRecord.RecordStatus.RESOLVED)
-                .count();
-
-        // Calculate average weight if available
-        Double averageWeight = records.stream()
-                .filter(r -> r.getWeightKg() != null)
-                .mapToDouble(r -> r.getWeightKg().doubleValue())
-                .average()
-                .orElse(0.0);
-
-        return new HealthRecordStats(totalRecords, activeRecords, resolvedRecords, averageWeight);
+        return healthSummaryService.getSummary(livestockId)
+                .map(summary -> new HealthRecordStats(
+                        summary.getTotalRecords(),
+                        summary.getActiveRecords(),
+                        summary.getResolvedRecords(),
+                        summary.getWeightCount() > 0
+                                ? summary.getWeightSumKg().doubleValue() / summary.getWeightCount()
+                                : 0.0,
+                        summary.getLatestExaminationDate()))
+                .orElseGet(() -> new HealthRecordStats(0, 0, 0, 0.0, null));
     }
 
     public HealthRecordDto mapToDto(HealthRecord record) {
@@ -247,10 +333,10 @@ public class HealthRecordService {
                 record.getRespiratoryRateBpm(),
                 record.getWeightKg(),
                 record.getBodyConditionScore(),
-                convertJsonToList(record.getSymptoms()),
+                new ArrayList<>(record.getSymptoms()),
                 record.getDiagnosis(),
                 record.getTreatmentGiven(),
-                convertJsonToList(record.getMedicationsPrescribed()),
+                new ArrayList<>(record.getMedicationsPrescribed()),
                 record.getRecommendations(),
                 record.getFollowUpRequired(),
                 record.getFollowUpDate(),
@@ -266,6 +352,7 @@ public class HealthRecordService {
         private long activeRecords;
         private long resolvedRecords;
         private double averageWeight;
+        private java.time.LocalDate latestExaminationDate;
 
         public HealthRecordStats(long totalRecords, long activeRecords, long resolvedRecords, double averageWeight) {
             this.totalRecords = totalRecords;
@@ -274,16 +361,24 @@ public class HealthRecordService {
             this.averageWeight = averageWeight;
         }
 
+        public HealthRecordStats(long totalRecords, long activeRecords, long resolvedRecords, double averageWeight,
+                                 java.time.LocalDate latestExaminationDate) {
+            this(totalRecords, activeRecords, resolvedRecords, averageWeight);
+            this.latestExaminationDate = latestExaminationDate;
+        }
+
         // Getters
         public long getTotalRecords() { return totalRecords; }
         public long getActiveRecords() { return activeRecords; }
         public long getResolvedRecords() { return resolvedRecords; }
         public double getAverageWeight() { return averageWeight; }
+        public java.time.LocalDate getLatestExaminationDate() { return latestExaminationDate; }
 
         // Setters
         public void setTotalRecords(long totalRecords) { this.totalRecords = totalRecords; }
         public void setActiveRecords(long activeRecords) { this.activeRecords = activeRecords; }
         public void setResolvedRecords(long resolvedRecords) { this.resolvedRecords = resolvedRecords; }
         public void setAverageWeight(double averageWeight) { this.averageWeight = averageWeight; }
+        public void setLatestExaminationDate(java.time.LocalDate latestExaminationDate) { this.latestExaminationDate = latestExaminationDate; }
     }
 }
\ No newline at end of file
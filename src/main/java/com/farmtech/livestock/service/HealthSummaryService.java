@@ -0,0 +1,164 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.model.HealthRecord;
+import com.farmtech.livestock.model.LivestockHealthSummary;
+import com.farmtech.livestock.repository.LivestockHealthSummaryRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps {@code livestock_health_summary} in step with {@code health_records}. Each add, update or
+ * delete applies a signed delta with one upsert, inside the caller's transaction, so stats reads are
+ * a primary-key lookup. {@link #rebuildAll()} recomputes every row from {@code health_records}.
+ */
+@Service
+public class HealthSummaryService {
+
+    private static final String APPLY_DELTA_SQL =
+            "INSERT INTO livestock_health_summary (livestock_id, total_records, active_records, resolved_records, " +
+            "ongoing_records, weight_sum_kg, weight_count, latest_examination_date, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, " +
+            "(SELECT MAX(hr.examination_date) FROM health_records hr WHERE hr.livestock_id = ?), ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_records = total_records + VALUES(total_records), " +
+            "active_records = active_records + VALUES(active_records), " +
+            "resolved_records = resolved_records + VALUES(resolved_records), " +
+            "ongoing_records = ongoing_records + VALUES(ongoing_records), " +
+            "weight_sum_kg = weight_sum_kg + VALUES(weight_sum_kg), " +
+            "weight_count = weight_count + VALUES(weight_count), " +
+            "latest_examination_date = VALUES(latest_examination_date), " +
+            "updated_at = VALUES(updated_at)";
+
+    private static final String AGGREGATE_SQL =
+            "SELECT livestock_id, COUNT(*) AS total_records, " +
+            "SUM(status = 'ACTIVE') AS active_records, SUM(status = 'RESOLVED') AS resolved_records, " +
+            "SUM(status = 'ONGOING') AS ongoing_records, COALESCE(SUM(weight_kg), 0) AS weight_sum_kg, " +
+            "COUNT(weight_kg) AS weight_count, MAX(examination_date) AS latest_examination_date " +
+            "FROM health_records GROUP BY livestock_id";
+
+    private static final String INCONSISTENT_SQL =
+            "SELECT COUNT(*) FROM (" + AGGREGATE_SQL + ") a " +
+            "LEFT JOIN livestock_health_summary s ON s.livestock_id = a.livestock_id " +
+            "WHERE s.livestock_id IS NULL OR s.total_records <> a.total_records " +
+            "OR s.active_records <> a.active_records OR s.resolved_records <> a.resolved_records " +
+            "OR s.ongoing_records <> a.ongoing_records OR s.weight_sum_kg <> a.weight_sum_kg " +
+            "OR s.weight_count <> a.weight_count OR NOT (s.latest_examination_date <=> a.latest_examination_date)";
+
+    private static final String ORPHANED_SQL =
+            "SELECT COUNT(*) FROM livestock_health_summary s WHERE s.total_records <> 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM health_records hr WHERE hr.livestock_id = s.livestock_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LivestockHealthSummaryRepository summaryRepository;
+
+    public HealthSummaryService(JdbcTemplate jdbcTemplate, LivestockHealthSummaryRepository summaryRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.summaryRepository = summaryRepository;
+    }
+
+    // Call after the new record has been flushed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(HealthRecord record) {
+        Map<Integer, Delta> deltas = new LinkedHashMap<>();
+        Contribution.of(record).addTo(deltas, 1);
+        applyDeltas(deltas);
+    }
+
+    // before: captured prior to modifying the record; call after the change has been flushed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(Contribution before, HealthRecord after) {
+        Map<Integer, Delta> deltas = new LinkedHashMap<>();
+        before.addTo(deltas, -1);
+        Contribution.of(after).addTo(deltas, 1);
+        applyDeltas(deltas);
+    }
+
+    // Call after the delete has been flushed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(Contribution removed) {
+        Map<Integer, Delta> deltas = new LinkedHashMap<>();
+        removed.addTo(deltas, -1);
+        applyDeltas(deltas);
+    }
+
+    public Optional<LivestockHealthSummary> getSummary(Integer livestockId) {
+        return summaryRepository.findById(livestockId);
+    }
+
+    // ✅ Consistency check: number of livestock whose summary row disagrees with health_records
+    @Transactional(readOnly = true)
+    public long countInconsistent() {
+        Long mismatched = jdbcTemplate.queryForObject(INCONSISTENT_SQL, Long.class);
+        Long orphaned = jdbcTemplate.queryForObject(ORPHANED_SQL, Long.class);
+        return (mismatched == null ? 0 : mismatched) + (orphaned == null ? 0 : orphaned);
+    }
+
+    // ✅ Bulk rebuild of every summary row from health_records in one transaction
+    @Transactional
+    public int rebuildAll() {
+        jdbcTemplate.update("DELETE FROM livestock_health_summary");
+        return jdbcTemplate.update(
+                "INSERT INTO livestock_health_summary (livestock_id, total_records, active_records, resolved_records, " +
+                "ongoing_records, weight_sum_kg, weight_count, latest_examination_date, updated_at) " +
+                "SELECT a.livestock_id, a.total_records, a.active_records, a.resolved_records, a.ongoing_records, " +
+                "a.weight_sum_kg, a.weight_count, a.latest_examination_date, ? FROM (" + AGGREGATE_SQL + ") a",
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void applyDeltas(Map<Integer, Delta> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        deltas.forEach((livestockId, d) -> jdbcTemplate.update(APPLY_DELTA_SQL,
+                livestockId, d.total, d.active, d.resolved, d.ongoing, d.weightSum, d.weightCount,
+                livestockId, now));
+    }
+
+    /**
+     * What one health record contributes to its livestock's summary. Capture it before mutating
+     * or deleting a record so the old contribution can be subtracted.
+     */
+    public static final class Contribution {
+        private final Integer livestockId;
+        private final HealthRecord.RecordStatus status;
+        private final BigDecimal weightKg;
+
+        private Contribution(Integer livestockId, HealthRecord.RecordStatus status, BigDecimal weightKg) {
+            this.livestockId = livestockId;
+            this.status = status;
+            this.weightKg = weightKg;
+        }
+
+        public static Contribution of(HealthRecord record) {
+            return new Contribution(record.getLivestock().getLivestockId(), record.getStatus(), record.getWeightKg());
+        }
+
+        private void addTo(Map<Integer, Delta> deltas, int sign) {
+            Delta d = deltas.computeIfAbsent(livestockId, id -> new Delta());
+            d.total += sign;
+            if (status == HealthRecord.RecordStatus.ACTIVE) d.active += sign;
+            if (status == HealthRecord.RecordStatus.RESOLVED) d.resolved += sign;
+            if (status == HealthRecord.RecordStatus.ONGOING) d.ongoing += sign;
+            if (weightKg != null) {
+                d.weightSum = d.weightSum.add(sign > 0 ? weightKg : weightKg.negate());
+                d.weightCount += sign;
+            }
+        }
+    }
+
+    private static final class Delta {
+        private long total;
+        private long active;
+        private long resolved;
+        private long ongoing;
+        private BigDecimal weightSum = BigDecimal.ZERO;
+        private long weightCount;
+    }
+}
@@ -0,0 +1,106 @@
+package com.farmtech.livestock.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for last-login timestamps. Logins only touch an in-memory map that keeps the
+ * latest timestamp per user; a scheduled flush writes them as one {@code UPDATE ... CASE} per chunk
+ * instead of one full-entity update per login. Pending values are flushed on shutdown.
+ */
+@Component
+public class LastLoginRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final ConcurrentHashMap<Long, Date> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+
+    public LastLoginRecorder(JdbcTemplate jdbcTemplate,
+                             @Value("${auth.last-login.flush-chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public void record(Long userId, Date loginDate) {
+        recorded.incrementAndGet();
+        pending.merge(userId, loginDate, (current, next) -> next.after(current) ? next : current);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        // Take ownership of the current values; a newer login re-adds its own entry
+        Map<Long, Date> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, Date> entry : pending.entrySet()) {
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        List<Map.Entry<Long, Date>> entries = new ArrayList<>(batch.entrySet());
+        for (int from = 0; from < entries.size(); from += chunkSize) {
+            List<Map.Entry<Long, Date>> chunk = entries.subList(from, Math.min(from + chunkSize, entries.size()));
+            try {
+                writeChunk(chunk);
+                rowsWritten.addAndGet(chunk.size());
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {} last-login updates, will retry: {}", chunk.size(), e.getMessage());
+                chunk.forEach(entry -> record(entry.getKey(), entry.getValue()));
+                recorded.addAndGet(-chunk.size());
+            }
+        }
+        flushes.incrementAndGet();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public Map<String, Long> getStats() {
+        long written = rowsWritten.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("lastLoginPending", (long) pending.size());
+        stats.put("lastLoginRecorded", recorded.get());
+        stats.put("lastLoginRowsWritten", written);
+        stats.put("lastLoginCoalesced", Math.max(0, recorded.get() - written - pending.size()));
+        stats.put("lastLoginFlushes", flushes.get());
+        return stats;
+    }
+
+    // UPDATE users SET last_login_date = CASE id WHEN ? THEN ? ... END WHERE id IN (?, ...)
+    private void writeChunk(List<Map.Entry<Long, Date>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE users SET last_login_date = CASE id");
+        List<Object> args = new ArrayList<>(chunk.size() * 3);
+        for (Map.Entry<Long, Date> entry : chunk) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(new Timestamp(entry.getValue().getTime()));
+        }
+        sql.append(" END WHERE id IN (");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            args.add(chunk.get(i).getKey());
+        }
+        sql.append(")");
+
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
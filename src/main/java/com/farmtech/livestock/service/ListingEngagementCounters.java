@@ -0,0 +1,215 @@
+package com.farmtech.livestock.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Absorbs listing view and contact increments in per-listing {@link LongAdder}s and writes them
+ * out periodically as one batch of {@code view_count = view_count + ?} updates, so a popular
+ * listing never serializes requests on its row lock.
+ * <p>
+ * At most {@code listing.counters.flush-interval-ms} of increments, and never much more than
+ * {@code listing.counters.max-pending}, can be lost if the process dies: reaching the pending
+ * bound triggers an early flush, a failed flush puts its deltas back, and shutdown flushes.
+ */
+@Component
+public class ListingEngagementCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingEngagementCounters.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE livestock_listings SET view_count = COALESCE(view_count, 0) + ?, " +
+            "contact_count = COALESCE(contact_count, 0) + ? WHERE listing_id = ?";
+    private static final int FLUSH_BATCH_SIZE = 500;
+    // Entries with no increments for this many flushes are dropped from the map
+    private static final int IDLE_FLUSHES_BEFORE_EVICT = 12;
+    // Roughly one increment in this many checks the pending total
+    private static final int PENDING_CHECK_SAMPLE = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxPending;
+
+    private final ConcurrentHashMap<Integer, Pending> pending = new ConcurrentHashMap<>();
+    // Evicted entries are drained once more on the next flush, after any in-flight increment has landed
+    private List<Map.Entry<Integer, Pending>> retired = new ArrayList<>();
+    private final LongAdder pendingTotal = new LongAdder();
+
+    private final ExecutorService earlyFlusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "listing-counter-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean earlyFlushQueued = new AtomicBoolean();
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong flushedIncrements = new AtomicLong();
+    private volatile long lastFlushMillis;
+
+    public ListingEngagementCounters(JdbcTemplate jdbcTemplate,
+                                     @Value("${listing.counters.max-pending:10000}") long maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxPending = maxPending;
+    }
+
+    public void recordView(Integer listingId) {
+        increment(listingId, true);
+    }
+
+    public void recordContact(Integer listingId) {
+        increment(listingId, false);
+    }
+
+    // Increments not yet written to livestock_listings
+    public long pendingViews(Integer listingId) {
+        Pending p = pending.get(listingId);
+        return p == null ? 0 : p.views.sum();
+    }
+
+    public long pendingContacts(Integer listingId) {
+        Pending p = pending.get(listingId);
+        return p == null ? 0 : p.contacts.sum();
+    }
+
+    // ✅ Write all pending increments in batched, additive updates ordered by listing_id
+    @Scheduled(fixedDelayString = "${listing.counters.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        long start = System.currentTimeMillis();
+        SortedMap<Integer, long[]> deltas = new TreeMap<>();
+
+        for (Map.Entry<Integer, Pending> entry : retired) {
+            drainInto(deltas, entry.getKey(), entry.getValue());
+        }
+        retired = new ArrayList<>();
+
+        for (Map.Entry<Integer, Pending> entry : pending.entrySet()) {
+            Pending p = entry.getValue();
+            if (!drainInto(deltas, entry.getKey(), p) && ++p.idleFlushes >= IDLE_FLUSHES_BEFORE_EVICT) {
+                p.retired = true;
+                if (pending.remove(entry.getKey(), p)) {
+                    retired.add(Map.entry(entry.getKey(), p));
+                }
+            }
+        }
+        if (deltas.isEmpty()) return;
+
+        List<Object[]> batch = new ArrayList<>(Math.min(deltas.size(), FLUSH_BATCH_SIZE));
+        List<Map.Entry<Integer, long[]>> written = new ArrayList<>(deltas.size());
+        long increments = 0;
+        try {
+            for (Map.Entry<Integer, long[]> delta : deltas.entrySet()) {
+                batch.add(new Object[]{delta.getValue()[0], delta.getValue()[1], delta.getKey()});
+                written.add(delta);
+                if (batch.size() == FLUSH_BATCH_SIZE) {
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                    batch.clear();
+                }
+                increments += delta.getValue()[0] + delta.getValue()[1];
+            }
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            }
+            flushes.incrementAndGet();
+            flushedIncrements.addAndGet(increments);
+            lastFlushMillis = System.currentTimeMillis() - start;
+        } catch (RuntimeException e) {
+            // Batches are independent autocommit statements; only the unwritten tail is put back
+            failedFlushes.incrementAndGet();
+            int committed = written.size() - batch.size();
+            List<Map.Entry<Integer, long[]>> unwritten = new ArrayList<>(deltas.entrySet()).subList(committed, deltas.size());
+            for (Map.Entry<Integer, long[]> delta : unwritten) {
+                restore(delta.getKey(), delta.getValue()[0], delta.getValue()[1]);
+            }
+            log.error("Listing counter flush failed, {} listings kept for the next attempt: {}", unwritten.size(), e.getMessage());
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("trackedListings", (long) pending.size());
+        stats.put("pendingIncrements", pendingTotal.sum());
+        stats.put("maxPending", maxPending);
+        stats.put("flushes", flushes.get());
+        stats.put("failedFlushes", failedFlushes.get());
+        stats.put("flushedIncrements", flushedIncrements.get());
+        stats.put("lastFlushMillis", lastFlushMillis);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        earlyFlusher.shutdownNow();
+        flush();
+        // Anything evicted during the final flush still needs its last drain
+        flush();
+    }
+
+    private void increment(Integer listingId, boolean view) {
+        Pending p;
+        do {
+            p = pending.computeIfAbsent(listingId, id -> new Pending());
+        } while (p.retired);
+        (view ? p.views : p.contacts).increment();
+        pendingTotal.increment();
+
+        if (ThreadLocalRandom.current().nextInt(PENDING_CHECK_SAMPLE) == 0 && pendingTotal.sum() >= maxPending
+                && earlyFlushQueued.compareAndSet(false, true)) {
+            try {
+                earlyFlusher.execute(() -> {
+                    try {
+                        flush();
+                    } finally {
+                        earlyFlushQueued.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                earlyFlushQueued.set(false);
+            }
+        }
+    }
+
+    // Returns false when the entry had nothing to write
+    private boolean drainInto(SortedMap<Integer, long[]> deltas, Integer listingId, Pending p) {
+        long views = p.views.sumThenReset();
+        long contacts = p.contacts.sumThenReset();
+        if (views == 0 && contacts == 0) return false;
+        p.idleFlushes = 0;
+        pendingTotal.add(-(views + contacts));
+        long[] delta = deltas.computeIfAbsent(listingId, id -> new long[2]);
+        delta[0] += views;
+        delta[1] += contacts;
+        return true;
+    }
+
+    private void restore(Integer listingId, long views, long contacts) {
+        Pending p;
+        do {
+            p = pending.computeIfAbsent(listingId, id -> new Pending());
+        } while (p.retired);
+        p.views.add(views);
+        p.contacts.add(contacts);
+        pendingTotal.add(views + contacts);
+    }
+
+    private static final class Pending {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder contacts = new LongAdder();
+        // Only touched by the flushing thread
+        private int idleFlushes;
+        private volatile boolean retired;
+    }
+}
@@ -0,0 +1,430 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.event.ListingChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves ACTIVE listings to EXPIRED when they reach {@code expires_at}, or {@code auction_end_date}
+ * for auctions that end first. Upcoming deadlines live in a hierarchical timing wheel with
+ * one-second resolution (256 one-second slots, then four levels of 64 coarser slots), stored as
+ * parallel {@code int} arrays, so a million pending listings cost tens of megabytes and each tick
+ * only looks at the entries that are due. Due listings are closed with one set-based UPDATE per
+ * chunk and reported to the listing index as {@link ListingChangedEvent.Change#EXPIRED}, or as
+ * {@link ListingChangedEvent.Change#SOLD} for auctions whose high bid reached the minimum price.
+ * Auctions are sealed on their {@link AuctionEngine} lane and pending bids flushed first, so the
+ * close always sees every accepted bid and anti-sniping extension.
+ */
+@Component
+public class ListingExpiryScheduler implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingExpiryScheduler.class);
+
+    // Deadlines are stored as int seconds since 2020-01-01T00:00Z, good until 2088
+    private static final long EPOCH_OFFSET_SECONDS = 1_577_836_800L;
+    private static final int EXPIRY_BATCH_SIZE = 500;
+    private static final int RETRY_DELAY_SECONDS = 30;
+
+    private static final String DEADLINE_COLUMNS = "listing_id, listing_status, listing_type, expires_at, auction_end_date";
+    private static final String SNAPSHOT_SQL =
+            "SELECT " + DEADLINE_COLUMNS + " FROM livestock_listings WHERE listing_status = 'ACTIVE'";
+    private static final String ROW_SQL =
+            "SELECT " + DEADLINE_COLUMNS + " FROM livestock_listings WHERE listing_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuctionEngine auctionEngine;
+    private final AuctionBidWriter bidWriter;
+
+    // Guarded by this; the wheel may hold stale entries, the map has the one current deadline per listing
+    private TimingWheel wheel;
+    private final IntIntMap deadlines = new IntIntMap();
+    private volatile boolean loaded;
+
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    public ListingExpiryScheduler(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                  AuctionEngine auctionEngine, AuctionBidWriter bidWriter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.auctionEngine = auctionEngine;
+        this.bidWriter = bidWriter;
+        this.wheel = new TimingWheel(nowSeconds());
+    }
+
+    // One pass over ACTIVE listings (idx_listings_status_expires); deadlines set meanwhile by events win
+    @Override
+    public void run(String... args) {
+        int[] count = {0};
+        jdbcTemplate.query(SNAPSHOT_SQL, rs -> {
+            int deadline = deadlineOf(rs);
+            if (deadline != Integer.MIN_VALUE) {
+                synchronized (this) {
+                    if (deadlines.get(rs.getInt("listing_id")) == IntIntMap.MISSING) {
+                        put(rs.getInt("listing_id"), deadline);
+                        count[0]++;
+                    }
+                }
+            }
+        });
+        loaded = true;
+        log.info("Listing expiry scheduler loaded {} deadlines", count[0]);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        switch (event.getChange()) {
+            case CREATED:
+            case UPDATED:
+                reschedule(event.getListingId());
+                break;
+            default:
+                cancel(event.getListingId());
+        }
+    }
+
+    // ✅ Re-read one listing's deadline columns and (re)arm or cancel its timer
+    public void reschedule(Integer listingId) {
+        List<Integer> deadline = jdbcTemplate.query(ROW_SQL, (rs, i) -> deadlineOf(rs), listingId);
+        synchronized (this) {
+            if (deadline.isEmpty() || deadline.get(0) == Integer.MIN_VALUE) {
+                deadlines.remove(listingId);
+            } else {
+                put(listingId, deadline.get(0));
+            }
+        }
+    }
+
+    public synchronized void cancel(Integer listingId) {
+        // The wheel entry stays behind and is skipped when its slot fires
+        deadlines.remove(listingId);
+    }
+
+    // ✅ Advance the wheel to now and close everything that came due
+    @Scheduled(fixedDelayString = "${listing.expiry.tick-ms:1000}")
+    public void tick() {
+        if (!loaded) return;
+        int now = nowSeconds();
+        int[] due;
+        synchronized (this) {
+            IntList collected = new IntList();
+            while (wheel.base <= now) {
+                wheel.tick((listingId, deadline) -> {
+                    if (deadlines.get(listingId) == deadline) {
+                        deadlines.remove(listingId);
+                        collected.add(listingId);
+                    }
+                });
+            }
+            due = collected.toArray();
+        }
+        for (int from = 0; from < due.length; from += EXPIRY_BATCH_SIZE) {
+            expireBatch(Arrays.copyOfRange(due, from, Math.min(due.length, from + EXPIRY_BATCH_SIZE)));
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        synchronized (this) {
+            stats.put("pendingDeadlines", (long) deadlines.size);
+            stats.put("wheelEntries", wheel.entries);
+            stats.put("approxBytes", wheel.capacity() * 8L + deadlines.keys.length * 8L);
+        }
+        stats.put("expired", expired.get());
+        stats.put("failedBatches", failedBatches.get());
+        return stats;
+    }
+
+    // The guard on expires_at/auction_end_date makes a stale timer harmless
+    private void expireBatch(int[] listingIds) {
+        // No bid may land after the close, and every accepted bid and extension must be stored
+        if (!auctionEngine.sealDue(listingIds) || !bidWriter.flush()) {
+            failedBatches.incrementAndGet();
+            retryLater(listingIds);
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        StringJoiner ids = new StringJoiner(",");
+        for (int listingId : listingIds) {
+            ids.add(Integer.toString(listingId));
+        }
+        try {
+            jdbcTemplate.update(
+                    "UPDATE livestock_listings SET updated_at = ?, listing_status = CASE " +
+                    "WHEN listing_type = 'AUCTION' AND EXISTS (SELECT 1 FROM auction_bids b " +
+                    "WHERE b.listing_id = livestock_listings.listing_id " +
+                    "AND b.amount >= COALESCE(livestock_listings.minimum_price, 0)) THEN 'SOLD' ELSE 'EXPIRED' END " +
+                    "WHERE listing_status = 'ACTIVE' AND listing_id IN (" + ids + ") " +
+                    "AND (expires_at <= ? OR (listing_type = 'AUCTION' AND auction_end_date <= ?))",
+                    now, now, now);
+            // Report only the rows this statement closed, with the status each one got
+            Map<Integer, String> closed = new HashMap<>();
+            jdbcTemplate.query(
+                    "SELECT listing_id, listing_status FROM livestock_listings WHERE listing_id IN (" + ids + ") " +
+                    "AND listing_status IN ('EXPIRED', 'SOLD') AND updated_at = ?",
+                    rs -> {
+                        closed.put(rs.getInt("listing_id"), rs.getString("listing_status"));
+                    }, now);
+            for (Map.Entry<Integer, String> entry : closed.entrySet()) {
+                eventPublisher.publishEvent(new ListingChangedEvent(entry.getKey(), "SOLD".equals(entry.getValue())
+                        ? ListingChangedEvent.Change.SOLD : ListingChangedEvent.Change.EXPIRED));
+            }
+            expired.addAndGet(closed.size());
+            // Skipped by the guard, e.g. an auction extended since its timer was set: re-arm from the row
+            for (int listingId : listingIds) {
+                if (!closed.containsKey(listingId)) reschedule(listingId);
+            }
+        } catch (RuntimeException e) {
+            failedBatches.incrementAndGet();
+            log.error("Failed to expire {} listings, retrying in {}s: {}", listingIds.length, RETRY_DELAY_SECONDS, e.getMessage());
+            retryLater(listingIds);
+        }
+    }
+
+    private synchronized void retryLater(int[] listingIds) {
+        int retryAt = nowSeconds() + RETRY_DELAY_SECONDS;
+        for (int listingId : listingIds) {
+            if (deadlines.get(listingId) == IntIntMap.MISSING) put(listingId, retryAt);
+        }
+    }
+
+    private void put(int listingId, int deadline) {
+        deadlines.put(listingId, deadline);
+        wheel.add(listingId, deadline);
+    }
+
+    // Integer.MIN_VALUE when the listing has nothing to schedule
+    private static int deadlineOf(ResultSet rs) throws SQLException {
+        if (!"ACTIVE".equals(rs.getString("listing_status"))) return Integer.MIN_VALUE;
+        Timestamp expiresAt = rs.getTimestamp("expires_at");
+        Timestamp auctionEnd = "AUCTION".equals(rs.getString("listing_type")) ? rs.getTimestamp("auction_end_date") : null;
+        Timestamp deadline = expiresAt;
+        if (auctionEnd != null && (deadline == null || auctionEnd.before(deadline))) {
+            deadline = auctionEnd;
+        }
+        // Rounded up, so the timer never fires before a deadline with a fractional second
+        return deadline == null ? Integer.MIN_VALUE : toWheelSeconds((deadline.getTime() + 999) / 1000);
+    }
+
+    private static int nowSeconds() {
+        return toWheelSeconds(System.currentTimeMillis() / 1000);
+    }
+
+    private static int toWheelSeconds(long epochSeconds) {
+        long relative = epochSeconds - EPOCH_OFFSET_SECONDS;
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE - 1, relative));
+    }
+
+    interface EntryConsumer {
+        void accept(int listingId, int deadline);
+    }
+
+    /**
+     * Hierarchical timing wheel in the style of the classic kernel timer wheel: level 0 has one slot
+     * per second for the next 256 seconds, each higher level has 64 slots covering 64 times the
+     * span of the level below. When level 0 wraps, the next slot of level 1 is redistributed into
+     * finer slots, and so on upwards, so each entry is moved at most once per level.
+     */
+    static final class TimingWheel {
+        private static final int ROOT_BITS = 8;
+        private static final int LEVEL_BITS = 6;
+        private static final int LEVELS = 5;
+
+        private final Bucket[][] levels = new Bucket[LEVELS][];
+        // Next second to process
+        int base;
+        long entries;
+
+        TimingWheel(int base) {
+            this.base = base;
+            levels[0] = new Bucket[1 << ROOT_BITS];
+            for (int level = 1; level < LEVELS; level++) {
+                levels[level] = new Bucket[1 << LEVEL_BITS];
+            }
+        }
+
+        void add(int id, int deadline) {
+            long delta = (long) deadline - base;
+            int level;
+            int slot;
+            if (delta < 0) {
+                level = 0;
+                slot = base & ((1 << ROOT_BITS) - 1);
+            } else if (delta < 1 << ROOT_BITS) {
+                level = 0;
+                slot = deadline & ((1 << ROOT_BITS) - 1);
+            } else {
+                level = 1;
+                while (level < LEVELS - 1 && delta >= 1L << (ROOT_BITS + LEVEL_BITS * level)) {
+                    level++;
+                }
+                slot = (deadline >>> (ROOT_BITS + LEVEL_BITS * (level - 1))) & ((1 << LEVEL_BITS) - 1);
+            }
+            Bucket bucket = levels[level][slot];
+            if (bucket == null) {
+                bucket = new Bucket();
+                levels[level][slot] = bucket;
+            }
+            bucket.add(id, deadline);
+            entries++;
+        }
+
+        void tick(EntryConsumer fire) {
+            int index = base & ((1 << ROOT_BITS) - 1);
+            if (index == 0) {
+                for (int level = 1; level < LEVELS; level++) {
+                    if (cascade(level) != 0) break;
+                }
+            }
+            Bucket due = levels[0][index];
+            levels[0][index] = null;
+            if (due != null) {
+                entries -= due.size;
+                for (int i = 0; i < due.size; i++) {
+                    fire.accept(due.ids[i], due.deadlines[i]);
+                }
+            }
+            base++;
+        }
+
+        private int cascade(int level) {
+            int index = (base >>> (ROOT_BITS + LEVEL_BITS * (level - 1))) & ((1 << LEVEL_BITS) - 1);
+            Bucket bucket = levels[level][index];
+            levels[level][index] = null;
+            if (bucket != null) {
+                entries -= bucket.size;
+                for (int i = 0; i < bucket.size; i++) {
+                    add(bucket.ids[i], bucket.deadlines[i]);
+                }
+            }
+            return index;
+        }
+
+        long capacity() {
+            long capacity = 0;
+            for (Bucket[] slots : levels) {
+                for (Bucket bucket : slots) {
+                    if (bucket != null) capacity += bucket.ids.length;
+                }
+            }
+            return capacity;
+        }
+    }
+
+    private static final class Bucket {
+        private int[] ids = new int[8];
+        private int[] deadlines = new int[8];
+        private int size;
+
+        private void add(int id, int deadline) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                deadlines = Arrays.copyOf(deadlines, size * 2);
+            }
+            ids[size] = id;
+            deadlines[size] = deadline;
+            size++;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    // Open-addressing int -> int map with linear probing and backward-shift deletion; avoids boxing
+    static final class IntIntMap {
+        static final int MISSING = Integer.MIN_VALUE;
+        private static final int FREE = 0;
+
+        private int[] keys = new int[1024];
+        private int[] values = new int[1024];
+        int size;
+
+        int get(int key) {
+            if (key == FREE) return MISSING;
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; keys[i] != FREE; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+            }
+            return MISSING;
+        }
+
+        void put(int key, int value) {
+            if ((size + 1) * 2 > keys.length) resize();
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != FREE) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        void remove(int key) {
+            if (key == FREE) return;
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == FREE) return;
+                i = (i + 1) & mask;
+            }
+            size--;
+            // Shift later members of the probe run back so lookups never stop early
+            int gap = i;
+            for (int j = (gap + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+                int home = mix(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = FREE;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
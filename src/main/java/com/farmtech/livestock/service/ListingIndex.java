@@ -0,0 +1,531 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.FacetCount;
+import com.farmtech.livestock.dto.ListingBrowseResult;
+import com.farmtech.livestock.dto.ListingDto;
+import com.farmtech.livestock.dto.ListingSearchRequest;
+import com.farmtech.livestock.event.ListingChangedEvent;
+import com.farmtech.livestock.model.LivestockListing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-optimized in-memory index over ACTIVE marketplace listings. Each listing occupies a dense
+ * slot; per-category, per-county, per-price-bucket and per-type postings lists are {@link BitSet}s
+ * over those slots, so a faceted browse is a handful of word-wise ANDs and never touches MySQL.
+ * The index is loaded at startup, kept current from {@link ListingChangedEvent}s (one row read per
+ * change) and fully reloaded on a long interval to correct any drift.
+ */
+@Component
+public class ListingIndex implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingIndex.class);
+
+    private static final String UNKNOWN_COUNTY = "UNKNOWN";
+    // Slot numbers are packed into the low bits of the sort keys
+    private static final int SLOT_BITS = 24;
+    private static final int MAX_SLOTS = 1 << SLOT_BITS;
+    private static final int REFRESH_STRIPES = 64;
+
+    private static final String SELECT_SQL =
+            "SELECT ll.listing_id, ll.livestock_id, ll.farmer_id, ll.title, ll.asking_price, ll.negotiable, " +
+            "ll.listing_status, ll.listing_type, ll.auction_end_date, ll.featured, ll.view_count, ll.images, " +
+            "ll.video_url, ll.location_visible, ll.delivery_available, ll.delivery_cost, ll.created_at, ll.expires_at, " +
+            "l.name, l.category_id, c.name, b.name, " +
+            "(SELECT a.county FROM farmer_profiles f JOIN user_addresses a ON a.user_id = f.user_id " +
+            " WHERE f.farmer_id = ll.farmer_id ORDER BY a.is_default DESC, a.address_id LIMIT 1) AS county " +
+            "FROM livestock_listings ll " +
+            "JOIN livestock l ON l.livestock_id = ll.livestock_id " +
+            "JOIN livestock_categories c ON c.category_id = l.category_id " +
+            "JOIN livestock_breeds b ON b.breed_id = l.breed_id ";
+
+    private static final String SNAPSHOT_SQL = SELECT_SQL + "WHERE ll.listing_status = 'ACTIVE'";
+    private static final String ROW_SQL = SELECT_SQL + "WHERE ll.listing_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Lower bounds of the price buckets, in whole currency units; the first must be 0
+    private final long[] priceBucketBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state;
+
+    // Held from the row read to the apply, so a refresh or removal of one listing never overtakes
+    // another one for the same listing with an older read (e.g. an edit and a bid's extension,
+    // or CREATED and an immediate WITHDRAWN)
+    private final Object[] refreshStripes = new Object[REFRESH_STRIPES];
+
+    // Listing ids changed while a full reload is running; re-read once the new state is live
+    private Set<Integer> pendingDuringRebuild;
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong totalQueryNanos = new AtomicLong();
+    private final AtomicLong maxQueryNanos = new AtomicLong();
+    private volatile long lastRebuildMillis;
+
+    public ListingIndex(JdbcTemplate jdbcTemplate,
+                        @Value("${listing.index.price-buckets:0,5000,10000,25000,50000,100000,250000,500000}") long[] priceBucketBounds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceBucketBounds = priceBucketBounds.clone();
+        Arrays.sort(this.priceBucketBounds);
+        this.state = new State(this.priceBucketBounds.length);
+        for (int i = 0; i < refreshStripes.length; i++) {
+            refreshStripes[i] = new Object();
+        }
+    }
+
+    @Override
+    public void run(String... args) {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(event.getListingId());
+                return;
+            }
+        }
+        if (event.getChange() == ListingChangedEvent.Change.CREATED || event.getChange() == ListingChangedEvent.Change.UPDATED) {
+            refresh(event.getListingId());
+        } else {
+            // Expired, withdrawn or sold: the listing just leaves the index, no need to re-read it
+            removeAll(List.of(event.getListingId()));
+        }
+    }
+
+    // ✅ Re-read one listing and add, replace or drop its slot
+    public void refresh(Integer listingId) {
+        synchronized (stripe(listingId)) {
+            List<ListingDto> rows = jdbcTemplate.query(ROW_SQL, (rs, i) -> mapRow(rs), listingId);
+            lock.writeLock().lock();
+            try {
+                state.remove(listingId);
+                if (!rows.isEmpty() && isIndexable(rows.get(0))) {
+                    state.add(rows.get(0), bucketOf(rows.get(0).getAskingPrice()));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Drop listings without re-reading them
+    public void removeAll(Collection<Integer> listingIds) {
+        for (Integer listingId : listingIds) {
+            synchronized (stripe(listingId)) {
+                lock.writeLock().lock();
+                try {
+                    state.remove(listingId);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    // Indexed (browse card) view of an active listing
+    public Optional<ListingDto> find(Integer listingId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = state.slotByListingId.get(listingId);
+            return slot == null ? Optional.empty() : Optional.of(state.docs[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ✅ Full reload from one pass over ACTIVE listings; queries keep using the old state meanwhile
+    @Scheduled(fixedDelayString = "${listing.index.rebuild-interval-ms:3600000}",
+               initialDelayString = "${listing.index.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (this) {
+            pendingDuringRebuild = new HashSet<>();
+        }
+        long start = System.currentTimeMillis();
+        Set<Integer> replay;
+        try {
+            State rebuilt = new State(priceBucketBounds.length);
+            jdbcTemplate.query(SNAPSHOT_SQL, rs -> {
+                ListingDto dto = mapRow(rs);
+                if (isIndexable(dto)) {
+                    rebuilt.add(dto, bucketOf(dto.getAskingPrice()));
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                state = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            lastRebuildMillis = System.currentTimeMillis() - start;
+            log.info("Listing index loaded {} active listings in {} ms", rebuilt.live.cardinality(), lastRebuildMillis);
+        } catch (RuntimeException e) {
+            log.error("Listing index reload failed, keeping the previous state: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                replay = pendingDuringRebuild;
+                pendingDuringRebuild = null;
+            }
+        }
+        for (Integer listingId : replay) {
+            refresh(listingId);
+        }
+    }
+
+    // ✅ Faceted browse answered entirely from memory
+    public ListingBrowseResult search(ListingSearchRequest request, int maxPageSize) {
+        long started = System.nanoTime();
+        int size = Math.max(1, Math.min(request.getSize(), maxPageSize));
+        int page = Math.max(0, request.getPage());
+
+        lock.readLock().lock();
+        try {
+            State s = state;
+            BitSet categoryFilter = s.categoryFilter(request.getCategoryId());
+            BitSet countyFilter = s.countyFilter(request.getCounty());
+            BitSet priceFilter = s.priceFilter(request.getMinPrice(), request.getMaxPrice(), priceBucketBounds);
+            BitSet otherFilter = s.otherFilter(request.getListingType(), request.getDeliveryAvailable());
+
+            BitSet matches = s.intersect(categoryFilter, countyFilter, priceFilter, otherFilter);
+
+            // Each facet is counted under every filter except its own, so selected values keep sibling counts
+            Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+            facets.put("category", s.categoryFacet(s.intersect(null, countyFilter, priceFilter, otherFilter)));
+            facets.put("priceBucket", s.priceFacet(s.intersect(categoryFilter, countyFilter, null, otherFilter), priceBucketBounds));
+            facets.put("county", s.countyFacet(s.intersect(categoryFilter, null, priceFilter, otherFilter)));
+
+            List<ListingDto> items = s.page(matches, request.getSort(), page, size);
+            return new ListingBrowseResult(items, matches.cardinality(), page, size, facets);
+        } finally {
+            lock.readLock().unlock();
+            long elapsed = System.nanoTime() - started;
+            queries.incrementAndGet();
+            totalQueryNanos.addAndGet(elapsed);
+            maxQueryNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        long count = queries.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("activeListings", (long) state.live.cardinality());
+            stats.put("slots", (long) state.highWater);
+            stats.put("categories", (long) state.byCategory.size());
+            stats.put("counties", (long) state.countyNames.size() - 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("queries", count);
+        stats.put("avgQueryMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalQueryNanos.get() / count));
+        stats.put("maxQueryMicros", TimeUnit.NANOSECONDS.toMicros(maxQueryNanos.get()));
+        stats.put("lastRebuildMillis", lastRebuildMillis);
+        return stats;
+    }
+
+    private Object stripe(Integer listingId) {
+        return refreshStripes[Math.floorMod(listingId, REFRESH_STRIPES)];
+    }
+
+    private static boolean isIndexable(ListingDto dto) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean auctionEnded = LivestockListing.ListingType.AUCTION.name().equals(dto.getListingType())
+                && dto.getAuctionEndDate() != null && !dto.getAuctionEndDate().isAfter(now);
+        return LivestockListing.ListingStatus.ACTIVE.name().equals(dto.getListingStatus())
+                && (dto.getExpiresAt() == null || dto.getExpiresAt().isAfter(now))
+                && !auctionEnded;
+    }
+
+    private int bucketOf(BigDecimal price) {
+        long units = price == null ? 0 : price.longValue();
+        int bucket = Arrays.binarySearch(priceBucketBounds, units);
+        return bucket >= 0 ? bucket : Math.max(0, -bucket - 2);
+    }
+
+    private static ListingDto mapRow(ResultSet rs) throws SQLException {
+        ListingDto dto = new ListingDto();
+        dto.setListingId(rs.getInt("listing_id"));
+        dto.setLivestockId(rs.getInt("livestock_id"));
+        dto.setFarmerId(rs.getInt("farmer_id"));
+        dto.setTitle(rs.getString("title"));
+        dto.setAskingPrice(rs.getBigDecimal("asking_price"));
+        dto.setNegotiable(rs.getBoolean("negotiable"));
+        dto.setListingStatus(rs.getString("listing_status"));
+        dto.setListingType(rs.getString("listing_type"));
+        dto.setAuctionEndDate(toLocalDateTime(rs.getTimestamp("auction_end_date")));
+        dto.setFeatured(rs.getBoolean("featured"));
+        dto.setViewCount(rs.getInt("view_count"));
+        dto.setImages(rs.getString("images"));
+        dto.setVideoUrl(rs.getString("video_url"));
+        boolean locationVisible = rs.getObject("location_visible") == null || rs.getBoolean("location_visible");
+        dto.setLocationVisible(locationVisible);
+        dto.setDeliveryAvailable(rs.getBoolean("delivery_available"));
+        dto.setDeliveryCost(rs.getBigDecimal("delivery_cost"));
+        dto.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        dto.setExpiresAt(toLocalDateTime(rs.getTimestamp("expires_at")));
+        dto.setLivestockName(rs.getString(19));
+        dto.setCategoryId(rs.getInt(20));
+        dto.setCategoryName(rs.getString(21));
+        dto.setBreedName(rs.getString(22));
+        // Sellers who hide their location are indexed under the unknown county and show none
+        dto.setCounty(locationVisible ? rs.getString("county") : null);
+        return dto;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * Slot arrays and postings lists. Mutated only under the write lock; a full reload builds a
+     * fresh instance off to the side and swaps it in.
+     */
+    private static final class State {
+        private final Map<Integer, Integer> slotByListingId = new HashMap<>();
+        private ListingDto[] docs = new ListingDto[1024];
+        private long[] priceCents = new long[1024];
+        private long[] createdSeconds = new long[1024];
+        private int[] bucketOf = new int[1024];
+        private int[] countyOf = new int[1024];
+        private int highWater;
+        private int[] freeSlots = new int[64];
+        private int freeCount;
+
+        private final BitSet live = new BitSet();
+        private final BitSet featured = new BitSet();
+        private final BitSet delivery = new BitSet();
+        private final Map<Integer, BitSet> byCategory = new HashMap<>();
+        private final Map<Integer, String> categoryNames = new HashMap<>();
+        private final List<BitSet> byCounty = new ArrayList<>();
+        private final BitSet[] byPriceBucket;
+        private final Map<String, BitSet> byType = new HashMap<>();
+
+        // Dictionary encoding; county id 0 is reserved for unknown or hidden locations
+        private final Map<String, Integer> countyIds = new HashMap<>();
+        private final List<String> countyNames = new ArrayList<>(List.of(UNKNOWN_COUNTY));
+
+        private State(int buckets) {
+            byPriceBucket = new BitSet[buckets];
+            for (int i = 0; i < buckets; i++) {
+                byPriceBucket[i] = new BitSet();
+            }
+            byCounty.add(new BitSet());
+        }
+
+        private void add(ListingDto dto, int bucket) {
+            int slot = allocateSlot();
+            docs[slot] = dto;
+            priceCents[slot] = dto.getAskingPrice() == null ? 0 : dto.getAskingPrice().movePointRight(2).longValue();
+            createdSeconds[slot] = dto.getCreatedAt() == null ? 0 : dto.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+            bucketOf[slot] = bucket;
+            countyOf[slot] = countyId(dto.getCounty());
+            slotByListingId.put(dto.getListingId(), slot);
+
+            live.set(slot);
+            if (Boolean.TRUE.equals(dto.getFeatured())) featured.set(slot);
+            if (Boolean.TRUE.equals(dto.getDeliveryAvailable())) delivery.set(slot);
+            byCategory.computeIfAbsent(dto.getCategoryId(), id -> new BitSet()).set(slot);
+            categoryNames.put(dto.getCategoryId(), dto.getCategoryName());
+            byCounty.get(countyOf[slot]).set(slot);
+            byPriceBucket[bucket].set(slot);
+            byType.computeIfAbsent(dto.getListingType(), t -> new BitSet()).set(slot);
+        }
+
+        private void remove(Integer listingId) {
+            Integer slot = slotByListingId.remove(listingId);
+            if (slot == null) return;
+            ListingDto dto = docs[slot];
+
+            live.clear(slot);
+            featured.clear(slot);
+            delivery.clear(slot);
+            BitSet category = byCategory.get(dto.getCategoryId());
+            if (category != null) category.clear(slot);
+            byCounty.get(countyOf[slot]).clear(slot);
+            byPriceBucket[bucketOf[slot]].clear(slot);
+            BitSet type = byType.get(dto.getListingType());
+            if (type != null) type.clear(slot);
+
+            docs[slot] = null;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+
+        private int allocateSlot() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            if (highWater == MAX_SLOTS) {
+                throw new IllegalStateException("Listing index is full");
+            }
+            if (highWater == docs.length) {
+                int capacity = Math.min(MAX_SLOTS, docs.length * 2);
+                docs = Arrays.copyOf(docs, capacity);
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                createdSeconds = Arrays.copyOf(createdSeconds, capacity);
+                bucketOf = Arrays.copyOf(bucketOf, capacity);
+                countyOf = Arrays.copyOf(countyOf, capacity);
+            }
+            return highWater++;
+        }
+
+        private int countyId(String county) {
+            if (county == null || county.isBlank()) return 0;
+            String normalized = county.trim();
+            return countyIds.computeIfAbsent(normalized.toLowerCase(Locale.ROOT), c -> {
+                countyNames.add(normalized);
+                byCounty.add(new BitSet());
+                return countyNames.size() - 1;
+            });
+        }
+
+        // Null means "no filter on this facet"
+        private BitSet categoryFilter(List<Integer> categoryIds) {
+            if (categoryIds == null || categoryIds.isEmpty()) return null;
+            BitSet union = new BitSet();
+            for (Integer categoryId : categoryIds) {
+                BitSet postings = byCategory.get(categoryId);
+                if (postings != null) union.or(postings);
+            }
+            return union;
+        }
+
+        private BitSet countyFilter(List<String> counties) {
+            if (counties == null || counties.isEmpty()) return null;
+            BitSet union = new BitSet();
+            for (String county : counties) {
+                if (county == null) continue;
+                Integer id = countyIds.get(county.trim().toLowerCase(Locale.ROOT));
+                if (id != null) union.or(byCounty.get(id));
+            }
+            return union;
+        }
+
+        // Whole buckets inside the range are OR-ed in; the (at most two) boundary buckets are checked per slot
+        private BitSet priceFilter(BigDecimal min, BigDecimal max, long[] bounds) {
+            if (min == null && max == null) return null;
+            long minCents = min == null ? Long.MIN_VALUE : min.movePointRight(2).longValue();
+            long maxCents = max == null ? Long.MAX_VALUE : max.movePointRight(2).longValue();
+            BitSet union = new BitSet();
+            for (int b = 0; b < bounds.length; b++) {
+                long lowCents = bounds[b] * 100;
+                long highCents = b + 1 < bounds.length ? bounds[b + 1] * 100 - 1 : Long.MAX_VALUE;
+                if (highCents < minCents || lowCents > maxCents) continue;
+                if (lowCents >= minCents && highCents <= maxCents) {
+                    union.or(byPriceBucket[b]);
+                    continue;
+                }
+                BitSet postings = byPriceBucket[b];
+                for (int slot = postings.nextSetBit(0); slot >= 0; slot = postings.nextSetBit(slot + 1)) {
+                    if (priceCents[slot] >= minCents && priceCents[slot] <= maxCents) union.set(slot);
+                }
+            }
+            return union;
+        }
+
+        private BitSet otherFilter(String listingType, Boolean deliveryAvailable) {
+            BitSet filter = null;
+            if (listingType != null && !listingType.isBlank()) {
+                BitSet postings = byType.get(listingType.toUpperCase(Locale.ROOT));
+                filter = postings == null ? new BitSet() : (BitSet) postings.clone();
+            }
+            if (Boolean.TRUE.equals(deliveryAvailable)) {
+                if (filter == null) filter = (BitSet) delivery.clone();
+                else filter.and(delivery);
+            }
+            return filter;
+        }
+
+        private BitSet intersect(BitSet... filters) {
+            BitSet result = (BitSet) live.clone();
+            for (BitSet filter : filters) {
+                if (filter != null) result.and(filter);
+            }
+            return result;
+        }
+
+        private List<FacetCount> categoryFacet(BitSet base) {
+            List<FacetCount> counts = new ArrayList<>();
+            byCategory.forEach((categoryId, postings) -> {
+                int count = intersectionCount(base, postings);
+                if (count > 0) counts.add(new FacetCount(String.valueOf(categoryId), categoryNames.get(categoryId), count));
+            });
+            counts.sort(Comparator.comparingInt(FacetCount::getCount).reversed());
+            return counts;
+        }
+
+        private List<FacetCount> countyFacet(BitSet base) {
+            List<FacetCount> counts = new ArrayList<>();
+            for (int id = 0; id < byCounty.size(); id++) {
+                int count = intersectionCount(base, byCounty.get(id));
+                if (count > 0) counts.add(new FacetCount(countyNames.get(id), countyNames.get(id), count));
+            }
+            counts.sort(Comparator.comparingInt(FacetCount::getCount).reversed());
+            return counts;
+        }
+
+        // Buckets are reported in price order, including empty ones, so the UI can draw a stable range list
+        private List<FacetCount> priceFacet(BitSet base, long[] bounds) {
+            List<FacetCount> counts = new ArrayList<>();
+            for (int b = 0; b < bounds.length; b++) {
+                String label = b + 1 < bounds.length ? bounds[b] + "-" + (bounds[b + 1] - 1) : bounds[b] + "+";
+                counts.add(new FacetCount(String.valueOf(bounds[b]), label, intersectionCount(base, byPriceBucket[b])));
+            }
+            return counts;
+        }
+
+        private static int intersectionCount(BitSet a, BitSet b) {
+            BitSet copy = (BitSet) b.clone();
+            copy.and(a);
+            return copy.cardinality();
+        }
+
+        // Sort keys are (order value << SLOT_BITS | slot) so a primitive sort orders the slots
+        private List<ListingDto> page(BitSet matches, String sort, int page, int size) {
+            int total = matches.cardinality();
+            int from = page * size;
+            if (from >= total) return List.of();
+
+            boolean byPrice = "price_asc".equalsIgnoreCase(sort) || "price_desc".equalsIgnoreCase(sort);
+            boolean descending = !"price_asc".equalsIgnoreCase(sort);
+            long[] keys = new long[total];
+            int n = 0;
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                long order = byPrice
+                        ? priceCents[slot]
+                        : (featured.get(slot) ? 1L << (62 - SLOT_BITS) : 0L) | createdSeconds[slot];
+                keys[n++] = (order << SLOT_BITS) | slot;
+            }
+            Arrays.sort(keys);
+
+            int to = Math.min(total, from + size);
+            List<ListingDto> items = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                long key = descending ? keys[total - 1 - i] : keys[i];
+                items.add(docs[(int) (key & (MAX_SLOTS - 1))]);
+            }
+            return items;
+        }
+    }
+}
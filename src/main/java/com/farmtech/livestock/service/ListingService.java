@@ -0,0 +1,311 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.AuctionBidDto;
+import com.farmtech.livestock.dto.AuctionStateDto;
+import com.farmtech.livestock.dto.ListingBrowseResult;
+import com.farmtech.livestock.dto.ListingDto;
+import com.farmtech.livestock.dto.ListingSearchRequest;
+import com.farmtech.livestock.event.ListingChangedEvent;
+import com.farmtech.livestock.model.Livestock;
+import com.farmtech.livestock.model.LivestockListing;
+import com.farmtech.livestock.model.User;
+import com.farmtech.livestock.repository.AuctionBidRepository;
+import com.farmtech.livestock.repository.FarmerProfileRepository;
+import com.farmtech.livestock.repository.LivestockListingRepository;
+import com.farmtech.livestock.repository.LivestockRepository;
+import com.farmtech.livestock.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+@Service
+public class ListingService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final LivestockListingRepository listingRepository;
+    private final LivestockRepository livestockRepository;
+    private final FarmerProfileRepository farmerProfileRepository;
+    private final FarmerIdResolver farmerIdResolver;
+    private final ListingIndex listingIndex;
+    private final ListingEngagementCounters engagementCounters;
+    private final AuctionEngine auctionEngine;
+    private final AuctionBidRepository bidRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ListingService(LivestockListingRepository listingRepository,
+                          LivestockRepository livestockRepository,
+                          FarmerProfileRepository farmerProfileRepository,
+                          FarmerIdResolver farmerIdResolver,
+                          ListingIndex listingIndex,
+                          ListingEngagementCounters engagementCounters,
+                          AuctionEngine auctionEngine,
+                          AuctionBidRepository bidRepository,
+                          UserRepository userRepository,
+                          JdbcTemplate jdbcTemplate,
+                          ApplicationEventPublisher eventPublisher) {
+        this.listingRepository = listingRepository;
+        this.livestockRepository = livestockRepository;
+        this.farmerProfileRepository = farmerProfileRepository;
+        this.farmerIdResolver = farmerIdResolver;
+        this.listingIndex = listingIndex;
+        this.engagementCounters = engagementCounters;
+        this.auctionEngine = auctionEngine;
+        this.bidRepository = bidRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // ✅ Buyer browse: served from the in-memory index
+    public ListingBrowseResult browse(ListingSearchRequest request) {
+        return listingIndex.search(request, MAX_PAGE_SIZE);
+    }
+
+    // ✅ Listing detail; the seller's minimum price is never included here
+    public ListingDto getListing(Integer listingId) {
+        LivestockListing listing = listingRepository.findDetailById(listingId)
+                .orElseThrow(() -> new RuntimeException("Listing not found with id: " + listingId));
+        engagementCounters.recordView(listingId);
+        ListingDto dto = toDto(listing, false);
+        dto.setViewCount((int) Math.min(Integer.MAX_VALUE, (dto.getViewCount() == null ? 0 : dto.getViewCount())
+                + engagementCounters.pendingViews(listingId)));
+        listingIndex.find(listingId).ifPresent(indexed -> dto.setCounty(indexed.getCounty()));
+        return dto;
+    }
+
+    // ✅ A buyer asked to contact the seller of an active listing
+    public void recordContact(Integer listingId) {
+        if (listingIndex.find(listingId).isEmpty()) {
+            throw new RuntimeException("Listing not found or no longer active: " + listingId);
+        }
+        engagementCounters.recordContact(listingId);
+    }
+
+    // ✅ Live view/contact counts: the stored columns plus increments not yet flushed
+    public Map<String, Long> getEngagement(Integer listingId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT view_count, contact_count FROM livestock_listings WHERE listing_id = ?", listingId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Listing not found with id: " + listingId);
+        }
+        Number views = (Number) rows.get(0).get("view_count");
+        Number contacts = (Number) rows.get(0).get("contact_count");
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("viewCount", (views == null ? 0 : views.longValue()) + engagementCounters.pendingViews(listingId));
+        counts.put("contactCount", (contacts == null ? 0 : contacts.longValue()) + engagementCounters.pendingContacts(listingId));
+        return counts;
+    }
+
+    // ✅ Bid on an auction; decided on the auction's lane, completes with the new state.
+    // userId is the caller's token claim; the email is only looked up for tokens issued without one
+    public CompletableFuture<AuctionStateDto> placeBid(Integer listingId, BigDecimal amount, Long userId, String email) {
+        return auctionEngine.placeBid(listingId, callerUserId(userId, email), amount);
+    }
+
+    public CompletableFuture<AuctionStateDto> getAuction(Integer listingId) {
+        return auctionEngine.getState(listingId);
+    }
+
+    // ✅ Recent bids, newest first; bids from the last flush interval may not be listed yet
+    public List<AuctionBidDto> getBids(Integer listingId, Long callerUserId, String email, int limit) {
+        Long userId = callerUserId(callerUserId, email);
+        return bidRepository.findRecentByListingId(listingId, PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))))
+                .stream()
+                .map(bid -> new AuctionBidDto(bid.getBidNumber(), bid.getAmount(), bid.getPlacedAt(),
+                        userId.equals(bid.getBidderUserId())))
+                .collect(Collectors.toList());
+    }
+
+    // ✅ The caller's own listings in every status, newest first
+    public List<ListingDto> getMyListings(String email, int page, int size) {
+        Integer farmerId = farmerIdResolver.resolve(email);
+        return listingRepository.findSliceByFarmerId(farmerId,
+                        PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE))))
+                .getContent().stream()
+                .map(listing -> toDto(listing, true))
+                .collect(Collectors.toList());
+    }
+
+    // ✅ List one of the caller's animals for sale or auction
+    @Transactional
+    public ListingDto createListing(ListingDto dto, String email) {
+        Integer farmerId = farmerIdResolver.resolve(email);
+        if (dto.getLivestockId() == null) {
+            throw new RuntimeException("Livestock ID is required");
+        }
+        Livestock livestock = livestockRepository.findByIdAndFarmerId(dto.getLivestockId(), farmerId)
+                .orElseThrow(() -> new RuntimeException("Livestock not found with id: " + dto.getLivestockId()));
+        if (listingRepository.existsByLivestock_LivestockIdAndListingStatus(
+                livestock.getLivestockId(), LivestockListing.ListingStatus.ACTIVE)) {
+            throw new RuntimeException("This livestock already has an active listing");
+        }
+
+        LivestockListing listing = new LivestockListing();
+        listing.setLivestock(livestock);
+        listing.setFarmer(farmerProfileRepository.getReferenceById(farmerId));
+        applyDto(listing, dto);
+        validate(listing);
+
+        LivestockListing saved = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(saved.getListingId(), ListingChangedEvent.Change.CREATED));
+        return toDto(saved, true);
+    }
+
+    // ✅ Edit an ACTIVE listing owned by the caller
+    @Transactional
+    public ListingDto updateListing(Integer listingId, ListingDto dto, String email) {
+        LivestockListing listing = getOwnedListing(listingId, email);
+        if (listing.getListingStatus() != LivestockListing.ListingStatus.ACTIVE) {
+            throw new RuntimeException("Only active listings can be edited");
+        }
+        if (changesAuctionTerms(listing, dto) && auctionEngine.hasBids(listingId)) {
+            throw new RuntimeException("Auction terms cannot change once bidding has started");
+        }
+        applyDto(listing, dto);
+        validate(listing);
+
+        LivestockListing saved = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(saved.getListingId(), ListingChangedEvent.Change.UPDATED));
+        return toDto(saved, true);
+    }
+
+    @Transactional
+    public ListingDto withdrawListing(Integer listingId, String email) {
+        return close(listingId, email, LivestockListing.ListingStatus.WITHDRAWN, ListingChangedEvent.Change.WITHDRAWN);
+    }
+
+    @Transactional
+    public ListingDto markSold(Integer listingId, String email) {
+        return close(listingId, email, LivestockListing.ListingStatus.SOLD, ListingChangedEvent.Change.SOLD);
+    }
+
+    private ListingDto close(Integer listingId, String email, LivestockListing.ListingStatus status,
+                             ListingChangedEvent.Change change) {
+        LivestockListing listing = getOwnedListing(listingId, email);
+        if (listing.getListingStatus() != LivestockListing.ListingStatus.ACTIVE) {
+            throw new RuntimeException("Listing is already " + listing.getListingStatus().name().toLowerCase(Locale.ROOT));
+        }
+        if (status == LivestockListing.ListingStatus.WITHDRAWN
+                && listing.getListingType() == LivestockListing.ListingType.AUCTION && auctionEngine.hasBids(listingId)) {
+            throw new RuntimeException("Auctions with bids cannot be withdrawn");
+        }
+        listing.setListingStatus(status);
+        LivestockListing saved = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(saved.getListingId(), change));
+        return toDto(saved, true);
+    }
+
+    private Long callerUserId(Long userId, String email) {
+        if (userId != null) return userId;
+        return userRepository.findByEmail(email).map(User::getId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + email));
+    }
+
+    private LivestockListing getOwnedListing(Integer listingId, String email) {
+        return listingRepository.findByIdAndFarmerId(listingId, farmerIdResolver.resolve(email))
+                .orElseThrow(() -> new RuntimeException("Listing not found with id: " + listingId));
+    }
+
+    // Type, reserve and deadlines are fixed once an auction has bids
+    private boolean changesAuctionTerms(LivestockListing listing, ListingDto dto) {
+        if (listing.getListingType() != LivestockListing.ListingType.AUCTION) return false;
+        return (dto.getListingType() != null && parseListingType(dto.getListingType()) != listing.getListingType())
+                || (dto.getMinimumPrice() != null && (listing.getMinimumPrice() == null
+                        || dto.getMinimumPrice().compareTo(listing.getMinimumPrice()) != 0))
+                || (dto.getAuctionEndDate() != null && !dto.getAuctionEndDate().equals(listing.getAuctionEndDate()))
+                || (dto.getExpiresAt() != null && !dto.getExpiresAt().equals(listing.getExpiresAt()));
+    }
+
+    // Copies the client-editable fields; nulls leave the current value unchanged
+    private void applyDto(LivestockListing listing, ListingDto dto) {
+        if (dto.getTitle() != null) listing.setTitle(dto.getTitle().trim());
+        if (dto.getDescription() != null) listing.setDescription(dto.getDescription());
+        if (dto.getAskingPrice() != null) listing.setAskingPrice(dto.getAskingPrice());
+        if (dto.getMinimumPrice() != null) listing.setMinimumPrice(dto.getMinimumPrice());
+        if (dto.getNegotiable() != null) listing.setNegotiable(dto.getNegotiable());
+        if (dto.getListingType() != null) listing.setListingType(parseListingType(dto.getListingType()));
+        if (dto.getAuctionEndDate() != null) listing.setAuctionEndDate(dto.getAuctionEndDate());
+        if (dto.getImages() != null) listing.setImages(dto.getImages());
+        if (dto.getVideoUrl() != null) listing.setVideoUrl(dto.getVideoUrl());
+        if (dto.getLocationVisible() != null) listing.setLocationVisible(dto.getLocationVisible());
+        if (dto.getDeliveryAvailable() != null) listing.setDeliveryAvailable(dto.getDeliveryAvailable());
+        if (dto.getDeliveryCost() != null) listing.setDeliveryCost(dto.getDeliveryCost());
+        if (dto.getExpiresAt() != null) listing.setExpiresAt(dto.getExpiresAt());
+    }
+
+    private void validate(LivestockListing listing) {
+        if (listing.getTitle() == null || listing.getTitle().isBlank()) {
+            throw new RuntimeException("Title is required");
+        }
+        if (listing.getDescription() == null || listing.getDescription().isBlank()) {
+            throw new RuntimeException("Description is required");
+        }
+        if (listing.getAskingPrice() == null || listing.getAskingPrice().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new RuntimeException("Asking price must be greater than zero");
+        }
+        if (listing.getMinimumPrice() != null && listing.getMinimumPrice().compareTo(listing.getAskingPrice()) > 0) {
+            throw new RuntimeException("Minimum price cannot exceed the asking price");
+        }
+        if (listing.getListingType() == LivestockListing.ListingType.AUCTION
+                && (listing.getAuctionEndDate() == null || !listing.getAuctionEndDate().isAfter(LocalDateTime.now()))) {
+            throw new RuntimeException("Auctions need an end date in the future");
+        }
+        if (listing.getExpiresAt() != null && !listing.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("Expiry date must be in the future");
+        }
+    }
+
+    private LivestockListing.ListingType parseListingType(String type) {
+        try {
+            return LivestockListing.ListingType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid listing type: " + type);
+        }
+    }
+
+    private ListingDto toDto(LivestockListing listing, boolean forOwner) {
+        ListingDto dto = new ListingDto();
+        dto.setListingId(listing.getListingId());
+        Livestock livestock = listing.getLivestock();
+        if (livestock != null) {
+            dto.setLivestockId(livestock.getLivestockId());
+            dto.setLivestockName(livestock.getName());
+            dto.setCategoryId(livestock.getCategory() != null ? livestock.getCategory().getCategoryId() : null);
+            dto.setCategoryName(livestock.getCategory() != null ? livestock.getCategory().getName() : null);
+            dto.setBreedName(livestock.getBreed() != null ? livestock.getBreed().getName() : null);
+        }
+        dto.setFarmerId(listing.getFarmer() != null ? listing.getFarmer().getFarmerId() : null);
+        dto.setTitle(listing.getTitle());
+        dto.setDescription(listing.getDescription());
+        dto.setAskingPrice(listing.getAskingPrice());
+        dto.setMinimumPrice(forOwner ? listing.getMinimumPrice() : null);
+        dto.setNegotiable(listing.getNegotiable());
+        dto.setListingStatus(listing.getListingStatus() != null ? listing.getListingStatus().name() : null);
+        dto.setListingType(listing.getListingType() != null ? listing.getListingType().name() : null);
+        dto.setAuctionEndDate(listing.getAuctionEndDate());
+        dto.setFeatured(listing.getFeatured());
+        dto.setViewCount(listing.getViewCount());
+        dto.setImages(listing.getImages());
+        dto.setVideoUrl(listing.getVideoUrl());
+        dto.setLocationVisible(listing.getLocationVisible());
+        dto.setDeliveryAvailable(listing.getDeliveryAvailable());
+        dto.setDeliveryCost(listing.getDeliveryCost());
+        dto.setCreatedAt(listing.getCreatedAt());
+        dto.setExpiresAt(listing.getExpiresAt());
+        return dto;
+    }
+}
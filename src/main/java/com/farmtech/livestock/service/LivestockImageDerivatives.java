@@ -0,0 +1,300 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.event.LivestockImageStoredEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background pipeline that turns an uploaded livestock photo into resized, recompressed JPEG
+ * variants ({@link Variant}). Work runs on a small bounded pool after the upload request has
+ * returned; media references to the finished variants are appended to {@code livestock.images}. A
+ * variant that is missing (queue was full, server restarted) is regenerated the next time it is
+ * requested.
+ */
+@Component
+public class LivestockImageDerivatives {
+
+    private static final Logger log = LoggerFactory.getLogger(LivestockImageDerivatives.class);
+
+    // Only rewrite the row while it still references the original, so a user edit is never clobbered
+    private static final String RECORD_SQL =
+            "UPDATE livestock SET images = ? WHERE livestock_id = ? AND JSON_CONTAINS(images, JSON_QUOTE(?))";
+
+    public enum Variant {
+        FULL(1600, 0.85f), CARD(480, 0.80f), THUMB(160, 0.75f);
+
+        private final int maxEdge;
+        private final float quality;
+
+        Variant(int maxEdge, float quality) {
+            this.maxEdge = maxEdge;
+            this.quality = quality;
+        }
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Variant fromKey(String key) {
+            for (Variant variant : values()) {
+                if (variant.key().equalsIgnoreCase(key)) return variant;
+            }
+            return null;
+        }
+    }
+
+    private final LivestockImageStorage storage;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final long maxSourcePixels;
+    private final ThreadPoolExecutor executor;
+
+    // Originals with a job queued or running, so repeated requests do not duplicate work
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+
+    public LivestockImageDerivatives(LivestockImageStorage storage, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                     @Value("${media.derivatives.threads:2}") int threads,
+                                     @Value("${media.derivatives.queue-capacity:100}") int queueCapacity,
+                                     @Value("${media.derivatives.max-source-pixels:50000000}") long maxSourcePixels) {
+        this.storage = storage;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.maxSourcePixels = maxSourcePixels;
+
+        // Decode and encode in memory rather than through ImageIO's temp-file cache
+        ImageIO.setUseCache(false);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageStored(LivestockImageStoredEvent event) {
+        submit(event.getImageName(), event.getLivestockId());
+    }
+
+    // ✅ Called when a variant is requested but not on disk yet; returns immediately
+    public void requestIfMissing(String name) {
+        submit(name, null);
+    }
+
+    public Map<String, Long> getStats() {
+        long count = generated.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("derivativeJobsGenerated", count);
+        stats.put("derivativeJobsFailed", failed.get());
+        stats.put("derivativeJobsDropped", dropped.get());
+        stats.put("derivativeQueueDepth", (long) executor.getQueue().size());
+        stats.put("derivativeAvgMillis", count == 0 ? 0 : totalMillis.get() / count);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(String name, Integer livestockId) {
+        if (name == null || !inFlight.add(name)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(name, livestockId);
+                } finally {
+                    inFlight.remove(name);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(name);
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void generate(String name, Integer livestockId) {
+        Path original = storage.resolve(name).orElse(null);
+        if (original == null) return;
+
+        long start = System.nanoTime();
+        try {
+            if (!allVariantsExist(name)) {
+                BufferedImage source = decode(original);
+                if (source == null) {
+                    failed.incrementAndGet();
+                    log.warn("Skipping derivatives for {}: unreadable or too large", name);
+                    return;
+                }
+                // Each variant is scaled from the previous, larger one rather than from the original
+                BufferedImage current = source;
+                for (Variant variant : Variant.values()) {
+                    current = scaleToFit(current, variant.maxEdge);
+                    writeJpeg(current, variant, storage.derivativePath(name, variant.key()));
+                }
+                generated.incrementAndGet();
+                totalMillis.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            if (livestockId != null) {
+                record(livestockId, name);
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.error("Failed to generate derivatives for {}: {}", name, e.getMessage());
+        }
+    }
+
+    private boolean allVariantsExist(String name) {
+        for (Variant variant : Variant.values()) {
+            if (!Files.exists(storage.derivativePath(name, variant.key()))) return false;
+        }
+        return true;
+    }
+
+    // Reads the header first, then decodes with subsampling so a huge original is never fully expanded
+    private BufferedImage decode(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) return null;
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / Variant.FULL.maxEdge);
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return toRgb(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // JPEG has no alpha channel: flatten transparent and indexed images onto white
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) return image;
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    // Halves repeatedly with bilinear filtering, then takes one final step to the exact size
+    private static BufferedImage scaleToFit(BufferedImage image, int maxEdge) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int longEdge = Math.max(width, height);
+        if (longEdge <= maxEdge) return image;
+
+        int targetWidth = Math.max(1, (int) Math.round((double) width * maxEdge / longEdge));
+        int targetHeight = Math.max(1, (int) Math.round((double) height * maxEdge / longEdge));
+
+        BufferedImage current = image;
+        while (current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            int nextWidth = Math.max(targetWidth, current.getWidth() / 2);
+            int nextHeight = Math.max(targetHeight, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    // Written to a temp file and renamed into place, so readers never see a partial JPEG
+    private void writeJpeg(BufferedImage image, Variant variant, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path temp = storage.createTempFile();
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(variant.quality);
+                if (variant != Variant.THUMB) {
+                    param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                }
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // images becomes ["<sha>.<ext>", "<sha>.<ext>?size=full", "<sha>.<ext>?size=card", "<sha>.<ext>?size=thumb"],
+    // each one a path under /api/public/media, which serves the variant from the derived directory
+    private void record(Integer livestockId, String name) throws JsonProcessingException {
+        List<String> images = new ArrayList<>();
+        images.add(name);
+        for (Variant variant : Variant.values()) {
+            images.add(LivestockImageStorage.variantReference(name, variant.key()));
+        }
+        jdbcTemplate.update(RECORD_SQL, objectMapper.writeValueAsString(images), livestockId, name);
+    }
+}
@@ -0,0 +1,178 @@
+package com.farmtech.livestock.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for livestock photos. Uploads are streamed to a temp file with
+ * {@link MultipartFile#transferTo(Path)} (never buffered on the heap), hashed with SHA-256 through a
+ * {@link FileChannel}, and atomically renamed to {@code <sha256>.<ext>}; a file that is already
+ * stored is kept once and the duplicate temp file is discarded.
+ */
+@Component
+public class LivestockImageStorage {
+
+    private static final Set<String> ALLOWED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "webp");
+    private static final int HASH_BUFFER_BYTES = 64 * 1024;
+
+    // Stored files are "<sha256>.<ext>"; anything else (including "../") is never resolved.
+    // mp4/webm are accepted for listing videos placed in the same store.
+    private static final Pattern STORED_NAME = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif|webp|mp4|webm)");
+    private static final Pattern IMAGE_NAME = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif|webp)");
+
+    // One direct read buffer per upload thread instead of one allocation per upload
+    private static final ThreadLocal<ByteBuffer> HASH_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(HASH_BUFFER_BYTES));
+
+    private final Path uploadDir;
+    private final Path tempDir;
+    private final Path derivedDir;
+    private final long maxUploadBytes;
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong bytesStored = new AtomicLong();
+
+    public LivestockImageStorage(@Value("${media.upload-dir:uploads/livestock-images}") String uploadDir,
+                                 @Value("${media.max-upload-bytes:10485760}") long maxUploadBytes) throws IOException {
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.tempDir = this.uploadDir.resolve(".tmp");
+        this.derivedDir = this.uploadDir.resolve("derived");
+        this.maxUploadBytes = maxUploadBytes;
+        Files.createDirectories(this.tempDir);
+        Files.createDirectories(this.derivedDir);
+    }
+
+    // ✅ Returns the stored file name, e.g. "3f2a...c9.jpg"
+    public String store(MultipartFile image) throws IOException {
+        if (image.isEmpty()) {
+            rejected.incrementAndGet();
+            throw new RuntimeException("Image is empty");
+        }
+        if (image.getSize() > maxUploadBytes) {
+            rejected.incrementAndGet();
+            throw new RuntimeException("Image exceeds the " + maxUploadBytes + " byte upload limit");
+        }
+        String extension = extensionOf(image.getOriginalFilename());
+
+        // Temp file lives under the upload dir so the final move is a same-filesystem rename
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            image.transferTo(temp);
+            String name = sha256(temp) + "." + extension;
+            Path target = uploadDir.resolve(name);
+
+            if (Files.exists(target)) {
+                deduplicated.incrementAndGet();
+                return name;
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently by another upload
+                deduplicated.incrementAndGet();
+                return name;
+            }
+            stored.incrementAndGet();
+            bytesStored.addAndGet(Files.size(target));
+            return name;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // ✅ Path of a stored original, or empty if the name is not a stored file
+    public Optional<Path> resolve(String name) {
+        if (name == null || !STORED_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path file = uploadDir.resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    public static boolean isImage(String name) {
+        return IMAGE_NAME.matcher(name).matches();
+    }
+
+    // Where the given variant of a stored original lives, e.g. derived/<sha256>-thumb.jpg
+    public Path derivativePath(String name, String variant) {
+        return derivedDir.resolve(derivativeName(name, variant));
+    }
+
+    // How a variant is referenced from livestock.images; the media endpoint resolves it, e.g. <sha256>.png?size=thumb
+    public static String variantReference(String name, String variant) {
+        return name + "?size=" + variant;
+    }
+
+    private static String derivativeName(String name, String variant) {
+        return contentHash(name) + "-" + variant + ".jpg";
+    }
+
+    public static String contentHash(String name) {
+        int dot = name.indexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+
+    // Temp file for writers that publish into the store with an atomic rename
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(tempDir, "derive-", ".part");
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("imagesStored", stored.get());
+        stats.put("imagesDeduplicated", deduplicated.get());
+        stats.put("imagesRejected", rejected.get());
+        stats.put("imageBytesStored", bytesStored.get());
+        stats.put("maxUploadBytes", maxUploadBytes);
+        return stats;
+    }
+
+    private String extensionOf(String originalFilename) {
+        String extension = "";
+        if (originalFilename != null && originalFilename.lastIndexOf('.') >= 0) {
+            extension = originalFilename.substring(originalFilename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        }
+        if (!ALLOWED_EXTENSIONS.contains(extension)) {
+            rejected.incrementAndGet();
+            throw new RuntimeException("Unsupported image type: " + (extension.isEmpty() ? "none" : extension));
+        }
+        return "jpeg".equals(extension) ? "jpg" : extension;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer buffer = HASH_BUFFER.get();
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
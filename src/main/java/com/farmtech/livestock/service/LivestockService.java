@@ -1,36 +1,58 @@
 package com.farmtech.livestock.service;
 
+import com.farmtech.livestock.dto.CommonAncestorDto;
+import com.farmtech.livestock.dto.CursorPageDto;
 import com.farmtech.livestock.dto.LivestockDto;
+import com.farmtech.livestock.dto.PedigreeEntryDto;
+import com.farmtech.livestock.event.LivestockChangedEvent;
+import com.farmtech.livestock.event.LivestockImageStoredEvent;
+import com.farmtech.livestock.event.LivestockStatusChangedEvent;
+import com.farmtech.livestock.event.RecordCountChangedEvent;
 import com.farmtech.livestock.model.*;
 import com.farmtech.livestock.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.nio.file.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Service
 public class LivestockService {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+    private static final String CURSOR_PREFIX = "lv:";
+
     private final LivestockRepository repository;
     private final FarmerProfileRepository farmerProfileRepository;
     private final LivestockBreedRepository breedRepository;
     private final LivestockCategoryRepository categoryRepository;
+    private final FarmerIdResolver farmerIdResolver;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LivestockImageStorage imageStorage;
+    private final PedigreeService pedigreeService;
 
     @Autowired
     public LivestockService(LivestockRepository repository,
                             FarmerProfileRepository farmerProfileRepository,
                             LivestockBreedRepository breedRepository,
-                            LivestockCategoryRepository categoryRepository) {
+                            LivestockCategoryRepository categoryRepository,
+                            FarmerIdResolver farmerIdResolver,
+                            ApplicationEventPublisher eventPublisher,
+                            LivestockImageStorage imageStorage,
+                            PedigreeService pedigreeService) {
         this.repository = repository;
         this.farmerProfileRepository = farmerProfileRepository;
         this.breedRepository = breedRepository;
         this.categoryRepository = categoryRepository;
+        this.farmerIdResolver = farmerIdResolver;
+        this.eventPublisher = eventPublisher;
+        this.imageStorage = imageStorage;
+        this.pedigreeService = pedigreeService;
     }
 
     // ✅ Add livestock without image
@@ -40,71 +62,170 @@ public class LivestockService {
 
         Livestock livestock = convertDtoToEntity(dto);
         livestock.setFarmer(farmer);
-        return repository.save(livestock);
+        applyParents(livestock, dto, farmer.getFarmerId());
+        Livestock saved = repository.save(livestock);
+        eventPublisher.publishEvent(RecordCountChangedEvent.created(RecordCountChangedEvent.CountedRecord.LIVESTOCK));
+        eventPublisher.publishEvent(new LivestockChangedEvent(farmer.getFarmerId(), saved.getLivestockId()));
+        return saved;
     }
 
     // ✅ Add livestock with image
     public Livestock addLivestockWithImage(LivestockDto dto, MultipartFile image, Long userId) throws IOException {
-        String imagePath = image != null ? saveImageToFileSystem(image) : null;
+        String imagePath = image != null && !image.isEmpty() ? imageStorage.store(image) : null;
 
         FarmerProfile farmer = farmerProfileRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Farmer profile not found for user ID: " + userId));
 
         Livestock livestock = convertDtoToEntity(dto);
         livestock.setFarmer(farmer);
+        applyParents(livestock, dto, farmer.getFarmerId());
         if (imagePath != null) {
             livestock.setImages("[\"" + imagePath + "\"]"); // Store as JSON array string
         }
-        return repository.save(livestock);
-    }
-
-    private String saveImageToFileSystem(MultipartFile image) throws IOException {
-        String uploadDir = "uploads/livestock-images/";
-        File dir = new File(uploadDir);
-        if (!dir.exists()) dir.mkdirs();
-
-        String filename = UUID.randomUUID() + "_" + Objects.requireNonNull(image.getOriginalFilename());
-        Path path = Paths.get(uploadDir + filename);
-        Files.write(path, image.getBytes());
-
-        return filename;
+        Livestock saved = repository.save(livestock);
+        eventPublisher.publishEvent(RecordCountChangedEvent.created(RecordCountChangedEvent.CountedRecord.LIVESTOCK));
+        eventPublisher.publishEvent(new LivestockChangedEvent(farmer.getFarmerId(), saved.getLivestockId()));
+        if (imagePath != null) {
+            // Thumbnails are generated in the background after this returns
+            eventPublisher.publishEvent(new LivestockImageStoredEvent(saved.getLivestockId(), imagePath));
+        }
+        return saved;
     }
 
     // ✅ Update livestock by email
     public Livestock updateLivestockByEmail(Long id, LivestockDto dto, String email) {
         Livestock livestock = getLivestockByIdAndEmail(id, email);
+        Integer farmerId = farmerIdResolver.resolve(email);
+        Livestock.HealthStatus previousStatus = livestock.getHealthStatus();
         updateEntityFromDto(livestock, dto);
-        return repository.save(livestock);
+        applyParents(livestock, dto, farmerId);
+        Livestock saved = repository.save(livestock);
+        eventPublisher.publishEvent(new LivestockChangedEvent(farmerId, saved.getLivestockId()));
+        if (saved.getHealthStatus() != previousStatus) {
+            eventPublisher.publishEvent(new LivestockStatusChangedEvent(
+                    saved.getLivestockId(), email, previousStatus, saved.getHealthStatus()));
+        }
+        return saved;
     }
 
     // ✅ Delete livestock by email
     public void deleteLivestockByEmail(Long id, String email) {
         Livestock livestock = getLivestockByIdAndEmail(id, email);
+        Integer farmerId = farmerIdResolver.resolve(email);
+        int offspring = pedigreeService.countChildren(farmerId, livestock.getLivestockId());
+        if (offspring > 0) {
+            throw new RuntimeException("Livestock is recorded as the parent of " + offspring + " animal(s)");
+        }
         repository.delete(livestock);
+        eventPublisher.publishEvent(RecordCountChangedEvent.deleted(RecordCountChangedEvent.CountedRecord.LIVESTOCK));
+        eventPublisher.publishEvent(new LivestockChangedEvent(farmerId, livestock.getLivestockId()));
+    }
+
+    // ✅ Pedigree queries, answered from the herd's cached lineage graph
+    public List<PedigreeEntryDto> getAncestorsByEmail(Long id, String email, int generations) {
+        return pedigreeService.getAncestors(ownHerd(id, email), id.intValue(), generations);
+    }
+
+    public List<PedigreeEntryDto> getDescendantsByEmail(Long id, String email, int generations) {
+        return pedigreeService.getDescendants(ownHerd(id, email), id.intValue(), generations);
+    }
+
+    public List<CommonAncestorDto> getCommonAncestorsByEmail(Long id, Long otherId, String email, int generations) {
+        return pedigreeService.getCommonAncestors(ownHerd(id, email), id.intValue(), otherId.intValue(), generations);
     }
 
     // ✅ Get livestock by ID & email
     public Livestock getLivestockByIdAndEmail(Long id, String email) {
-        return repository.findByIdAndFarmer_User_Email(id.intValue(), email)
+        return repository.findByIdAndFarmerId(id.intValue(), ownerFarmerId(email))
                 .orElseThrow(() -> new RuntimeException("Livestock not found with id: " + id));
     }
 
     // ✅ Get all livestock by email (paginated)
     public List<Livestock> getFarmerLivestockByEmail(String email, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return repository.findByFarmer_User_Email(email, pageable).getContent();
+        return repository.findByFarmerId(ownerFarmerId(email), pageable).getContent();
     }
 
     // ✅ Search livestock by email
     public List<Livestock> searchLivestockByEmail(String query, String email, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return repository.findByFarmer_User_EmailAndNameContainingIgnoreCase(email, query, pageable).getContent();
+        return repository.searchByFarmerId(ownerFarmerId(email), query, pageable).getContent();
     }
 
     // ✅ Filter livestock by email
     public List<Livestock> filterLivestockByEmail(String type, String breed, String status, String email, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return repository.findByFilters(type, breed, status, email, pageable).getContent();
+        return repository.filterByFarmerId(ownerFarmerId(email), type, breed, parseHealthStatus(status), pageable)
+                .getContent();
+    }
+
+    // ✅ Keyset-paginated variants: page after the cursor, no COUNT(*) and no OFFSET scan
+    public CursorPageDto<Livestock> scrollFarmerLivestockByEmail(String email, String cursor, int size) {
+        Slice<Livestock> slice = repository.findSliceByFarmerIdAfter(
+                ownerFarmerId(email), decodeCursor(cursor), scrollPage(size));
+        return toCursorPage(slice);
+    }
+
+    public CursorPageDto<Livestock> scrollSearchLivestockByEmail(String query, String email, String cursor, int size) {
+        Slice<Livestock> slice = repository.searchSliceByFarmerIdAfter(
+                ownerFarmerId(email), query, decodeCursor(cursor), scrollPage(size));
+        return toCursorPage(slice);
+    }
+
+    public CursorPageDto<Livestock> scrollFilterLivestockByEmail(String type, String breed, String status, String email,
+                                                                 String cursor, int size) {
+        Slice<Livestock> slice = repository.filterSliceByFarmerIdAfter(
+                ownerFarmerId(email), type, breed, parseHealthStatus(status), decodeCursor(cursor), scrollPage(size));
+        return toCursorPage(slice);
+    }
+
+    // Callers without a farmer profile (admins, vets) own no livestock: their lists come back empty
+    // and lookups by id are not found, as before the farmer id was resolved up front
+    private Integer ownerFarmerId(String email) {
+        return farmerIdResolver.find(email).orElse(FarmerIdResolver.NO_FARMER);
+    }
+
+    // Pedigree walks stay inside the caller's herd; a caller without one has no animal to start from
+    private Integer ownHerd(Long id, String email) {
+        return farmerIdResolver.find(email)
+                .orElseThrow(() -> new RuntimeException("Livestock not found with id: " + id));
+    }
+
+    private Livestock.HealthStatus parseHealthStatus(String status) {
+        if (status == null || status.isBlank()) return null;
+        try {
+            return Livestock.HealthStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid health status: " + status);
+        }
+    }
+
+    private Pageable scrollPage(int size) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_SCROLL_SIZE)));
+    }
+
+    private CursorPageDto<Livestock> toCursorPage(Slice<Livestock> slice) {
+        List<Livestock> items = slice.getContent();
+        String nextCursor = slice.hasNext() && !items.isEmpty()
+                ? encodeCursor(items.get(items.size() - 1).getLivestockId())
+                : null;
+        return new CursorPageDto<>(items, nextCursor, slice.hasNext());
+    }
+
+    private String encodeCursor(Integer lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Integer decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) throw new IllegalArgumentException();
+            return Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
 
     // ✅ Add health record by email
@@ -165,6 +286,35 @@ public class LivestockService {
         breedRepository.findById(dto.getBreedId()).ifPresent(livestock::setBreed);
     }
 
+    // ✅ Parent links: null leaves a parent unchanged, 0 clears it, otherwise it must be an animal
+    // of the same herd with the matching gender that is not already a descendant
+    private void applyParents(Livestock livestock, LivestockDto dto, Integer farmerId) {
+        if (dto.getMotherId() != null) {
+            livestock.setMother(resolveParent(livestock, dto.getMotherId(), farmerId, Livestock.Gender.FEMALE, "Mother"));
+        }
+        if (dto.getFatherId() != null) {
+            livestock.setFather(resolveParent(livestock, dto.getFatherId(), farmerId, Livestock.Gender.MALE, "Father"));
+        }
+    }
+
+    private Livestock resolveParent(Livestock livestock, Integer parentId, Integer farmerId,
+                                    Livestock.Gender gender, String role) {
+        if (parentId == 0) return null;
+        if (parentId.equals(livestock.getLivestockId())) {
+            throw new RuntimeException(role + " cannot be the animal itself");
+        }
+        Livestock parent = repository.findByIdAndFarmerId(parentId, farmerId)
+                .orElseThrow(() -> new RuntimeException(role + " not found with id: " + parentId));
+        if (parent.getGender() != null && parent.getGender() != gender) {
+            throw new RuntimeException(role + " must be " + gender.name().toLowerCase());
+        }
+        if (livestock.getLivestockId() != null
+                && pedigreeService.isAncestor(farmerId, livestock.getLivestockId(), parentId)) {
+            throw new RuntimeException(role + " cannot be a descendant of this animal");
+        }
+        return parent;
+    }
+
     private BigDecimal toBigDecimal(Double value) {
         return value != null ? BigDecimal.valueOf(value) : null;
     }
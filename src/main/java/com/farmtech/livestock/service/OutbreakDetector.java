@@ -0,0 +1,417 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.OutbreakAlert;
+import com.farmtech.livestock.event.HealthRecordChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Incremental outbreak detection over new health records. Keeps per-day record counts for every
+ * (symptom, county, category) in a sliding window, keyed by a packed {@code long} in an
+ * open-addressing table, and raises an alert when a cluster's window total reaches the threshold.
+ * Creates, edits and deletes arrive as {@link HealthRecordChangedEvent}s once their transaction
+ * has committed, so the county lookup never runs inside the writer's transaction and rolled-back
+ * records are never counted; an edit or delete takes the old symptoms back out of their windows.
+ * The table is rebuilt from the records inside the window at startup, so the full table is never
+ * rescanned.
+ */
+@Component
+public class OutbreakDetector implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(OutbreakDetector.class);
+
+    private static final String UNKNOWN_COUNTY = "UNKNOWN";
+    private static final int MAX_RECENT_ALERTS = 100;
+
+    private static final String SNAPSHOT_SQL =
+            "SELECT hr.health_record_id, hr.examination_date, l.category_id, l.farmer_id, s.symptom " +
+            "FROM health_records hr " +
+            "JOIN livestock l ON l.livestock_id = hr.livestock_id " +
+            "JOIN health_record_symptoms s ON s.health_record_id = hr.health_record_id " +
+            "WHERE hr.examination_date BETWEEN ? AND ? AND hr.health_record_id <= ?";
+
+    private static final String COUNTIES_SQL =
+            "SELECT f.farmer_id, a.county FROM farmer_profiles f " +
+            "JOIN user_addresses a ON a.user_id = f.user_id " +
+            "ORDER BY f.farmer_id, a.is_default DESC, a.address_id";
+
+    private static final String COUNTY_SQL =
+            "SELECT a.county FROM farmer_profiles f " +
+            "JOIN user_addresses a ON a.user_id = f.user_id " +
+            "WHERE f.farmer_id = ? ORDER BY a.is_default DESC, a.address_id LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int windowDays;
+    private final int threshold;
+
+    // Dictionary encoding; id 0 is reserved for an unknown county
+    private final Map<String, Integer> symptomIds = new HashMap<>();
+    private final List<String> symptomNames = new ArrayList<>(List.of(""));
+    private final Map<String, Integer> countyIds = new HashMap<>();
+    private final List<String> countyNames = new ArrayList<>(List.of(UNKNOWN_COUNTY));
+    private final Map<Integer, Integer> farmerCounty = new HashMap<>();
+
+    private WindowTable windows = new WindowTable();
+    private final Deque<OutbreakAlert> recentAlerts = new ArrayDeque<>();
+
+    // Changes that arrive while the startup snapshot is loading; replayed if newer than the snapshot
+    private List<LiveRecord> pendingDuringRebuild;
+
+    public OutbreakDetector(JdbcTemplate jdbcTemplate,
+                            @Value("${outbreak.window-days:7}") int windowDays,
+                            @Value("${outbreak.threshold:5}") int threshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.windowDays = windowDays;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void run(String... args) {
+        rebuild();
+    }
+
+    // ✅ Runs after the record's transaction commits; old symptoms leave their windows before new ones enter
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHealthRecordChanged(HealthRecordChangedEvent event) {
+        if (event.getBefore() != null) {
+            record(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            record(event.getAfter(), 1);
+        }
+    }
+
+    // Never fails the caller; a record that cannot be counted is logged and skipped
+    private void record(HealthRecordChangedEvent.Snapshot snapshot, int sign) {
+        if (snapshot.getSymptoms().isEmpty() || snapshot.getExaminationDate() == null) return;
+        try {
+            LiveRecord live = new LiveRecord(
+                    snapshot.getRecordId(),
+                    snapshot.getExaminationDate().toEpochDay(),
+                    snapshot.getCategoryId(),
+                    snapshot.getFarmerId(),
+                    snapshot.getSymptoms(),
+                    sign);
+
+            synchronized (this) {
+                if (pendingDuringRebuild != null) {
+                    pendingDuringRebuild.add(live);
+                    return;
+                }
+            }
+            int countyId = countyIdForFarmer(live.farmerId);
+            synchronized (this) {
+                apply(windows, live, countyId, LocalDate.now().toEpochDay(), true);
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbreak detector failed to count health record {}: {}", snapshot.getRecordId(), e.getMessage());
+        }
+    }
+
+    // Reload the window from the database: one pass over records examined within the last windowDays
+    public void rebuild() {
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long today = LocalDate.now().toEpochDay();
+            Integer maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(health_record_id), 0) FROM health_records", Integer.class);
+            int highWaterMark = maxId == null ? 0 : maxId;
+
+            Map<Integer, String> counties = new HashMap<>();
+            jdbcTemplate.query(COUNTIES_SQL, rs -> {
+                counties.putIfAbsent(rs.getInt(1), rs.getString(2));
+            });
+
+            WindowTable rebuilt = new WindowTable();
+            int[] rows = {0};
+            synchronized (this) {
+                farmerCounty.clear();
+                counties.forEach((farmerId, county) -> farmerCounty.put(farmerId, countyId(county)));
+            }
+            jdbcTemplate.query(SNAPSHOT_SQL, rs -> {
+                long day = rs.getDate(2).toLocalDate().toEpochDay();
+                int categoryId = rs.getInt(3);
+                int farmerId = rs.getInt(4);
+                String symptom = rs.getString(5);
+                synchronized (this) {
+                    Integer countyId = farmerCounty.get(farmerId);
+                    add(rebuilt, symptomId(symptom), countyId == null ? 0 : countyId, categoryId, day, today, false);
+                }
+                rows[0]++;
+            }, Date.valueOf(LocalDate.ofEpochDay(today - windowDays + 1)), Date.valueOf(LocalDate.ofEpochDay(today)), highWaterMark);
+
+            List<LiveRecord> replay;
+            synchronized (this) {
+                replay = pendingDuringRebuild;
+                pendingDuringRebuild = null;
+                windows = rebuilt;
+            }
+            // Edits to records the snapshot already covered are not replayed: the snapshot read may have
+            // seen either version, and a miscount there ages out with the window
+            for (LiveRecord live : replay) {
+                if (live.recordId > highWaterMark) {
+                    int countyId = countyIdForFarmer(live.farmerId);
+                    synchronized (this) {
+                        apply(windows, live, countyId, today, true);
+                    }
+                }
+            }
+            log.info("Outbreak detector loaded {} symptom rows into {} clusters", rows[0], rebuilt.size);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                List<LiveRecord> replay = pendingDuringRebuild;
+                pendingDuringRebuild = null;
+                long today = LocalDate.now().toEpochDay();
+                for (LiveRecord live : replay) {
+                    Integer countyId = farmerCounty.get(live.farmerId);
+                    apply(windows, live, countyId == null ? 0 : countyId, today, true);
+                }
+            }
+            log.error("Outbreak detector snapshot failed, starting from live records only: {}", e.getMessage());
+        }
+    }
+
+    // Drop clusters that have aged out of the window and refresh the farmer -> county cache
+    @Scheduled(cron = "${outbreak.sweep-cron:0 5 0 * * *}")
+    public synchronized void sweep() {
+        long today = LocalDate.now().toEpochDay();
+        WindowTable live = new WindowTable();
+        for (int i = 0; i < windows.keys.length; i++) {
+            Window window = windows.values[i];
+            if (window != null && window.total(today, windowDays) > 0) {
+                live.put(windows.keys[i], window);
+            }
+        }
+        windows = live;
+        farmerCounty.clear();
+    }
+
+    // Clusters currently at or above the threshold, largest first
+    public synchronized List<OutbreakAlert> getActiveOutbreaks() {
+        long today = LocalDate.now().toEpochDay();
+        List<OutbreakAlert> active = new ArrayList<>();
+        for (int i = 0; i < windows.keys.length; i++) {
+            Window window = windows.values[i];
+            if (window == null) continue;
+            int total = window.total(today, windowDays);
+            if (total >= threshold) {
+                active.add(toAlert(windows.keys[i], total, today));
+            }
+        }
+        active.sort(Comparator.comparingInt(OutbreakAlert::getRecordCount).reversed());
+        return active;
+    }
+
+    public synchronized List<OutbreakAlert> getRecentAlerts() {
+        return new ArrayList<>(recentAlerts);
+    }
+
+    private void apply(WindowTable table, LiveRecord live, int countyId, long today, boolean alert) {
+        for (String symptom : live.symptoms) {
+            if (live.sign > 0) {
+                add(table, symptomId(symptom), countyId, live.categoryId, live.epochDay, today, alert);
+            } else {
+                remove(table, symptomId(symptom), countyId, live.categoryId, live.epochDay, today);
+            }
+        }
+    }
+
+    private void add(WindowTable table, int symptomId, int countyId, int categoryId, long day, long today, boolean alert) {
+        if (day > today || day <= today - windowDays) return;
+
+        long key = packKey(symptomId, countyId, categoryId);
+        Window window = table.get(key);
+        if (window == null) {
+            window = new Window(windowDays);
+            table.put(key, window);
+        }
+        int before = window.total(today, windowDays);
+        window.increment(day, windowDays);
+        if (alert && before < threshold && before + 1 >= threshold) {
+            raise(key, before + 1, today);
+        }
+    }
+
+    // Counts for days outside the window, or already aged out of their slot, are left alone
+    private void remove(WindowTable table, int symptomId, int countyId, int categoryId, long day, long today) {
+        if (day > today || day <= today - windowDays) return;
+
+        Window window = table.get(packKey(symptomId, countyId, categoryId));
+        if (window != null) {
+            window.decrement(day, windowDays);
+        }
+    }
+
+    private void raise(long key, int total, long today) {
+        OutbreakAlert alert = toAlert(key, total, today);
+        log.warn("Possible outbreak: {} records of '{}' in {} (category {}) within {} days",
+                total, alert.getSymptom(), alert.getCounty(), alert.getCategoryId(), windowDays);
+        recentAlerts.addFirst(alert);
+        while (recentAlerts.size() > MAX_RECENT_ALERTS) {
+            recentAlerts.removeLast();
+        }
+    }
+
+    private OutbreakAlert toAlert(long key, int total, long today) {
+        int symptomId = (int) (key >>> 40);
+        int countyId = (int) ((key >>> 20) & 0xFFFFF);
+        int categoryId = (int) (key & 0xFFFFF);
+        return new OutbreakAlert(symptomNames.get(symptomId), countyNames.get(countyId), categoryId, total,
+                windowDays, LocalDate.ofEpochDay(today - windowDays + 1), LocalDateTime.now());
+    }
+
+    private int countyIdForFarmer(int farmerId) {
+        synchronized (this) {
+            Integer cached = farmerCounty.get(farmerId);
+            if (cached != null) return cached;
+        }
+        List<String> county = jdbcTemplate.queryForList(COUNTY_SQL, String.class, farmerId);
+        synchronized (this) {
+            int countyId = county.isEmpty() ? 0 : countyId(county.get(0));
+            farmerCounty.put(farmerId, countyId);
+            return countyId;
+        }
+    }
+
+    private int symptomId(String symptom) {
+        String normalized = symptom.trim().toLowerCase(Locale.ROOT);
+        return symptomIds.computeIfAbsent(normalized, s -> {
+            symptomNames.add(s);
+            return symptomNames.size() - 1;
+        });
+    }
+
+    private int countyId(String county) {
+        if (county == null || county.isBlank()) return 0;
+        String normalized = county.trim();
+        return countyIds.computeIfAbsent(normalized.toLowerCase(Locale.ROOT), c -> {
+            countyNames.add(normalized);
+            return countyNames.size() - 1;
+        });
+    }
+
+    // symptom: 24 bits, county: 20 bits, category: 20 bits
+    private static long packKey(int symptomId, int countyId, int categoryId) {
+        return ((long) symptomId << 40) | ((long) (countyId & 0xFFFFF) << 20) | (categoryId & 0xFFFFF);
+    }
+
+    private static final class LiveRecord {
+        private final int recordId;
+        private final long epochDay;
+        private final int categoryId;
+        private final int farmerId;
+        private final List<String> symptoms;
+        // +1 when the record's symptoms enter the window, -1 when an edit or delete takes them out
+        private final int sign;
+
+        private LiveRecord(int recordId, long epochDay, int categoryId, int farmerId, List<String> symptoms, int sign) {
+            this.recordId = recordId;
+            this.epochDay = epochDay;
+            this.categoryId = categoryId;
+            this.farmerId = farmerId;
+            this.symptoms = symptoms;
+            this.sign = sign;
+        }
+    }
+
+    // Ring of per-day counts; a slot is reused once its day falls out of the window
+    private static final class Window {
+        private final long[] days;
+        private final int[] counts;
+
+        private Window(int windowDays) {
+            this.days = new long[windowDays];
+            this.counts = new int[windowDays];
+            Arrays.fill(days, Long.MIN_VALUE);
+        }
+
+        private void increment(long day, int windowDays) {
+            int slot = (int) Math.floorMod(day, (long) windowDays);
+            if (days[slot] != day) {
+                days[slot] = day;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+        }
+
+        private void decrement(long day, int windowDays) {
+            int slot = (int) Math.floorMod(day, (long) windowDays);
+            if (days[slot] == day && counts[slot] > 0) {
+                counts[slot]--;
+            }
+        }
+
+        private int total(long today, int windowDays) {
+            int total = 0;
+            for (int i = 0; i < days.length; i++) {
+                if (days[i] <= today && days[i] > today - windowDays) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+    }
+
+    // Open-addressing long -> Window map with linear probing; avoids boxing the packed keys
+    private static final class WindowTable {
+        private long[] keys = new long[64];
+        private Window[] values = new Window[64];
+        private int size;
+
+        private Window get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) return values[i];
+            }
+            return null;
+        }
+
+        private void put(long key, Window value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Window[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Window[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.CommonAncestorDto;
+import com.farmtech.livestock.dto.PedigreeEntryDto;
+import com.farmtech.livestock.event.LivestockChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers ancestry questions over {@code livestock.mother_id}/{@code father_id} in memory. A herd's
+ * whole lineage is read with one query into an int-indexed graph: parallel arrays for the parent
+ * links and a compressed (CSR) child list, so a walk of any depth is a breadth-first scan over
+ * {@code int[]}s instead of one lazy load per animal per generation.
+ * <p>
+ * Graphs are cached per farmer and dropped on {@link LivestockChangedEvent}. A load that raced with
+ * a change is discarded rather than cached, via a per-herd version counter.
+ */
+@Service
+public class PedigreeService {
+
+    private static final int MAX_GENERATIONS = 30;
+
+    private static final String HERD_SQL =
+            "SELECT livestock_id, mother_id, father_id, name, tag_number, gender " +
+            "FROM livestock WHERE farmer_id = ? ORDER BY livestock_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxHerds;
+
+    private final ConcurrentHashMap<Integer, Herd> herds = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Long> versions = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PedigreeService(JdbcTemplate jdbcTemplate,
+                           @Value("${pedigree.cache.max-herds:500}") int maxHerds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxHerds = maxHerds;
+    }
+
+    // ✅ Mothers, fathers and their forebears up to the given depth, nearest generation first
+    public List<PedigreeEntryDto> getAncestors(Integer farmerId, Integer livestockId, int generations) {
+        Herd herd = herd(farmerId);
+        return herd.entries(herd.walk(herd.require(livestockId), clamp(generations), true));
+    }
+
+    // ✅ Offspring and their offspring up to the given depth, nearest generation first
+    public List<PedigreeEntryDto> getDescendants(Integer farmerId, Integer livestockId, int generations) {
+        Herd herd = herd(farmerId);
+        return herd.entries(herd.walk(herd.require(livestockId), clamp(generations), false));
+    }
+
+    // ✅ Ancestors shared by two animals, closest (fewest generations in total) first
+    public List<CommonAncestorDto> getCommonAncestors(Integer farmerId, Integer firstId, Integer secondId, int generations) {
+        Herd herd = herd(farmerId);
+        int depth = clamp(generations);
+        int[] fromFirst = herd.depths(herd.walk(herd.require(firstId), depth, true));
+        int[] fromSecond = herd.walk(herd.require(secondId), depth, true);
+
+        List<CommonAncestorDto> common = new ArrayList<>();
+        for (int i = 0; i < fromSecond.length; i += 2) {
+            int node = fromSecond[i];
+            if (fromFirst[node] > 0) {
+                common.add(new CommonAncestorDto(herd.ids[node], herd.names[node], herd.tags[node],
+                        fromFirst[node], fromSecond[i + 1]));
+            }
+        }
+        common.sort(Comparator.comparingInt((CommonAncestorDto c) -> c.getGenerationsFromFirst() + c.getGenerationsFromSecond())
+                .thenComparing(CommonAncestorDto::getLivestockId));
+        return common;
+    }
+
+    // True when ancestorId appears anywhere above livestockId; used to refuse parent links that form a cycle
+    public boolean isAncestor(Integer farmerId, Integer ancestorId, Integer livestockId) {
+        Herd herd = herd(farmerId);
+        int start = herd.indexOf(livestockId);
+        int target = herd.indexOf(ancestorId);
+        if (start < 0 || target < 0) return false;
+        int[] walk = herd.walk(start, Integer.MAX_VALUE, true);
+        for (int i = 0; i < walk.length; i += 2) {
+            if (walk[i] == target) return true;
+        }
+        return false;
+    }
+
+    public int countChildren(Integer farmerId, Integer livestockId) {
+        Herd herd = herd(farmerId);
+        int node = herd.indexOf(livestockId);
+        return node < 0 ? 0 : herd.childStart[node + 1] - herd.childStart[node];
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLivestockChanged(LivestockChangedEvent event) {
+        invalidate(event.getFarmerId());
+    }
+
+    public void invalidate(Integer farmerId) {
+        if (farmerId == null) return;
+        versions.merge(farmerId, 1L, Long::sum);
+        if (herds.remove(farmerId) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long animals = 0;
+        for (Herd herd : herds.values()) {
+            animals += herd.ids.length;
+        }
+        stats.put("cachedHerds", (long) herds.size());
+        stats.put("cachedAnimals", animals);
+        stats.put("maxHerds", (long) maxHerds);
+        stats.put("hits", hits.get());
+        stats.put("loads", loads.get());
+        stats.put("invalidations", invalidations.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private Herd herd(Integer farmerId) {
+        Herd herd = herds.get(farmerId);
+        if (herd != null) {
+            hits.incrementAndGet();
+            herd.lastUsed = System.nanoTime();
+            return herd;
+        }
+        long version = versions.getOrDefault(farmerId, 0L);
+        herd = load(farmerId);
+        loads.incrementAndGet();
+        herd.lastUsed = System.nanoTime();
+        if (herds.size() >= maxHerds) {
+            evict();
+        }
+        herds.put(farmerId, herd);
+        // A change committed while this herd was loading may not be in it; keep it for this call only
+        if (versions.getOrDefault(farmerId, 0L) != version) {
+            herds.remove(farmerId, herd);
+        }
+        return herd;
+    }
+
+    // Shed the least recently used ~10% of the cached herds
+    private void evict() {
+        int excess = herds.size() - (maxHerds - Math.max(1, maxHerds / 10));
+        if (excess <= 0) return;
+        long[] used = herds.values().stream().mapToLong(h -> h.lastUsed).sorted().toArray();
+        if (used.length == 0) return;
+        long cutoff = used[Math.min(excess, used.length) - 1];
+        herds.values().removeIf(h -> {
+            boolean oldest = h.lastUsed <= cutoff;
+            if (oldest) evictions.incrementAndGet();
+            return oldest;
+        });
+    }
+
+    private Herd load(Integer farmerId) {
+        IntList ids = new IntList();
+        IntList mothers = new IntList();
+        IntList fathers = new IntList();
+        List<String> names = new ArrayList<>();
+        List<String> tags = new ArrayList<>();
+        List<String> genders = new ArrayList<>();
+        jdbcTemplate.query(HERD_SQL, rs -> {
+            ids.add(rs.getInt("livestock_id"));
+            mothers.add(rs.getInt("mother_id"));
+            fathers.add(rs.getInt("father_id"));
+            names.add(rs.getString("name"));
+            tags.add(rs.getString("tag_number"));
+            genders.add(rs.getString("gender"));
+        }, farmerId);
+        return new Herd(ids.toArray(), mothers.toArray(), fathers.toArray(),
+                names.toArray(new String[0]), tags.toArray(new String[0]), genders.toArray(new String[0]));
+    }
+
+    private static int clamp(int generations) {
+        return Math.max(1, Math.min(generations, MAX_GENERATIONS));
+    }
+
+    /**
+     * Immutable lineage of one herd. Animals are addressed by their position in {@code ids} (sorted
+     * livestock ids); parent links point at positions, with -1 for unknown parents and for parents
+     * kept in another herd. Children of node {@code i} are {@code children[childStart[i]..childStart[i+1])}.
+     * Only {@code lastUsed}, the eviction clock, changes after construction.
+     */
+    private static final class Herd {
+        private volatile long lastUsed;
+        private final int[] ids;
+        private final int[] mother;
+        private final int[] father;
+        private final int[] childStart;
+        private final int[] children;
+        private final String[] names;
+        private final String[] tags;
+        private final String[] genders;
+
+        private Herd(int[] ids, int[] motherIds, int[] fatherIds, String[] names, String[] tags, String[] genders) {
+            int n = ids.length;
+            this.ids = ids;
+            this.names = names;
+            this.tags = tags;
+            this.genders = genders;
+            this.mother = new int[n];
+            this.father = new int[n];
+            int[] counts = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                mother[i] = indexOf(motherIds[i]);
+                father[i] = indexOf(fatherIds[i]);
+                if (mother[i] >= 0) counts[mother[i] + 1]++;
+                if (father[i] >= 0 && father[i] != mother[i]) counts[father[i] + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                counts[i + 1] += counts[i];
+            }
+            this.childStart = counts;
+            this.children = new int[counts[n]];
+            int[] fill = Arrays.copyOf(counts, n);
+            for (int i = 0; i < n; i++) {
+                if (mother[i] >= 0) children[fill[mother[i]]++] = i;
+                if (father[i] >= 0 && father[i] != mother[i]) children[fill[father[i]]++] = i;
+            }
+        }
+
+        private int indexOf(int livestockId) {
+            if (livestockId <= 0) return -1;
+            int i = Arrays.binarySearch(ids, livestockId);
+            return i >= 0 ? i : -1;
+        }
+
+        private int require(Integer livestockId) {
+            int node = livestockId == null ? -1 : indexOf(livestockId);
+            if (node < 0) {
+                throw new RuntimeException("Livestock not found with id: " + livestockId);
+            }
+            return node;
+        }
+
+        /**
+         * Breadth-first walk from {@code start} along parent (up) or child links, returning
+         * (node, generation) pairs flattened into one array, in order of increasing generation.
+         * Each relative is reported once, at its shortest distance, and the start is excluded.
+         */
+        private int[] walk(int start, int maxGenerations, boolean up) {
+            int[] depth = new int[ids.length];
+            depth[start] = -1;
+            int[] queue = new int[16];
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            int size = 0;
+            int[] out = new int[16];
+            while (head < tail) {
+                int node = queue[head++];
+                int next = node == start ? 1 : depth[node] + 1;
+                if (next > maxGenerations) continue;
+                int from = up ? 0 : childStart[node];
+                int to = up ? 2 : childStart[node + 1];
+                for (int k = from; k < to; k++) {
+                    int relative = up ? (k == 0 ? mother[node] : father[node]) : children[k];
+                    if (relative < 0 || depth[relative] != 0) continue;
+                    depth[relative] = next;
+                    if (tail == queue.length) queue = Arrays.copyOf(queue, tail * 2);
+                    queue[tail++] = relative;
+                    if (size + 2 > out.length) out = Arrays.copyOf(out, out.length * 2);
+                    out[size++] = relative;
+                    out[size++] = next;
+                }
+            }
+            return Arrays.copyOf(out, size);
+        }
+
+        // Generation per node from a walk, 0 where the node was not reached
+        private int[] depths(int[] walk) {
+            int[] depth = new int[ids.length];
+            for (int i = 0; i < walk.length; i += 2) {
+                depth[walk[i]] = walk[i + 1];
+            }
+            return depth;
+        }
+
+        private List<PedigreeEntryDto> entries(int[] walk) {
+            List<PedigreeEntryDto> entries = new ArrayList<>(walk.length / 2);
+            for (int i = 0; i < walk.length; i += 2) {
+                int node = walk[i];
+                entries.add(new PedigreeEntryDto(ids[node], names[node], tags[node], genders[node], walk[i + 1]));
+            }
+            return entries;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[64];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
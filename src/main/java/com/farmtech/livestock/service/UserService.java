@@ -1,19 +1,22 @@
 package com.farmtech.livestock.service;
 
+import com.farmtech.livestock.event.UserAccountChangedEvent;
+import com.farmtech.livestock.event.UserDeactivatedEvent;
 import com.farmtech.livestock.model.User;
 import com.farmtech.livestock.repository.UserRepository;
 import com.farmtech.livestock.dto.UserDto;
 import com.farmtech.livestock.dto.UpdateProfileRequest;
 import com.farmtech.livestock.dto.ChangePasswordRequest;
+import com.farmtech.livestock.security.TokenDenyList;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -21,10 +24,21 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final TokenDenyList tokenDenyList;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DashboardCounters dashboardCounters;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       TokenDenyList tokenDenyList,
+                       LastLoginRecorder lastLoginRecorder,
+                       ApplicationEventPublisher eventPublisher, DashboardCounters dashboardCounters) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenDenyList = tokenDenyList;
+        this.lastLoginRecorder = lastLoginRecorder;
+        this.eventPublisher = eventPublisher;
+        this.dashboardCounters = dashboardCounters;
     }
     /**
      * Get user profile by username
@@ -36,12 +50,9 @@ public class UserService {
         return convertToUserDto(user);
     }
 
+    // Served from DashboardCounters; counts every account, including soft-deleted ones
     public Map<String, Long> countUsersByRole() {
-        List<User> users = userRepository.findAll();
-        Map<String, Long> roleCounts = users.stream()
-                .collect(Collectors.groupingBy(
-                        user -> user.getRole().getRoleName().name(), Collectors.counting()));
-        return roleCounts;
+        return dashboardCounters.usersByRole();
     }
 
 
@@ -54,6 +65,8 @@ public class UserService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
 
+        String previousEmail = user.getEmail();
+
         // Validate email uniqueness if email is being updated
         if (updateRequest.getEmail() != null && !updateRequest.getEmail().equals(user.getEmail())) {
             if (userRepository.existsByEmail(updateRequest.getEmail())) {
@@ -74,6 +87,8 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        // Caches keyed by email drop both once this commits (PrincipalCache, FarmerIdResolver)
+        eventPublisher.publishEvent(new UserAccountChangedEvent(previousEmail, updatedUser.getEmail()));
         return convertToUserDto(updatedUser);
     }
 
@@ -107,6 +122,7 @@ public class UserService {
         // Update password
         user.setPassword(passwordEncoder.encode(changePasswordRequest.getNewPassword()));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getEmail()));
     }
 
     /**
@@ -117,9 +133,15 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
 
         // Option 1: Soft delete (recommended)
+        boolean wasActive = Boolean.TRUE.equals(user.getActive());
         user.setActive(false);
         user.setDeletedAt(new Date());
         userRepository.save(user);
+        if (wasActive) {
+            eventPublisher.publishEvent(new UserDeactivatedEvent(user.getRole().getRoleName()));
+        }
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getEmail()));
+        tokenDenyList.revokeUser(user.getEmail());
 
         // Option 2: Hard delete (uncomment if needed)
         // userRepository.delete(user);
@@ -252,7 +274,6 @@ public class UserService {
 
     public void updateLastLoginDate(String username) {
         User user = findByUsername(username);
-        user.setLastLoginDate(new Date());
-        userRepository.save(user);
+        lastLoginRecorder.record(user.getId(), new Date());
     }
 }
\ No newline at end of file
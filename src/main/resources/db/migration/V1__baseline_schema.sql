@@ -0,0 +1,240 @@
+-- Baseline: the schema as Hibernate ddl-auto=update produced it from the original entities, before
+-- migrations were introduced. Existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it, so anything added since belongs in V2 onwards.
+
+CREATE TABLE user_roles (
+    role_id          INT NOT NULL AUTO_INCREMENT,
+    role_name        ENUM('FARMER','BUYER','VETERINARIAN','ADMIN') NOT NULL,
+    role_description TEXT,
+    permissions      JSON,
+    created_at       DATETIME(6),
+    PRIMARY KEY (role_id),
+    CONSTRAINT uk_user_roles_role_name UNIQUE (role_name)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id              BIGINT NOT NULL AUTO_INCREMENT,
+    username        VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    first_name      VARCHAR(255),
+    last_name       VARCHAR(255),
+    phone_number    VARCHAR(255),
+    created_at      DATETIME(6),
+    updated_at      DATETIME(6),
+    last_login_date DATETIME(6),
+    is_active       BIT,
+    deleted_at      DATETIME(6),
+    role_id         INT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT fk_users_role FOREIGN KEY (role_id) REFERENCES user_roles (role_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_addresses (
+    address_id       INT NOT NULL AUTO_INCREMENT,
+    user_id          BIGINT NOT NULL,
+    address_type     ENUM('PRIMARY','FARM','CLINIC','BUSINESS'),
+    county           VARCHAR(50) NOT NULL,
+    sub_county       VARCHAR(50),
+    ward             VARCHAR(50),
+    village          VARCHAR(100),
+    detailed_address TEXT,
+    latitude         DECIMAL(10,8),
+    longitude        DECIMAL(11,8),
+    is_default       BIT,
+    created_at       DATETIME(6),
+    updated_at       DATETIME(6),
+    PRIMARY KEY (address_id),
+    CONSTRAINT fk_user_addresses_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE farmer_profiles (
+    farmer_id                INT NOT NULL AUTO_INCREMENT,
+    user_id                  BIGINT NOT NULL,
+    farm_name                VARCHAR(100),
+    farm_size_acres          DECIMAL(8,2),
+    farming_experience_years INT,
+    primary_livestock_type   VARCHAR(50),
+    farming_license_number   VARCHAR(50),
+    bank_account_number      VARCHAR(50),
+    bank_name                VARCHAR(100),
+    mpesa_number             VARCHAR(15),
+    emergency_contact_name   VARCHAR(100),
+    emergency_contact_phone  VARCHAR(20),
+    created_at               DATETIME(6),
+    updated_at               DATETIME(6),
+    PRIMARY KEY (farmer_id),
+    CONSTRAINT uk_farmer_profiles_user UNIQUE (user_id),
+    CONSTRAINT fk_farmer_profiles_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE buyer_profiles (
+    buyer_id                  INT NOT NULL AUTO_INCREMENT,
+    user_id                   BIGINT NOT NULL,
+    business_name             VARCHAR(100),
+    business_type             ENUM('INDIVIDUAL','BUTCHERY','RESTAURANT','EXPORT','TRADER','PROCESSOR') NOT NULL,
+    business_license_number   VARCHAR(50),
+    preferred_livestock_types JSON,
+    buying_capacity_monthly   INT,
+    payment_methods           JSON,
+    delivery_range_km         INT,
+    created_at                DATETIME(6),
+    updated_at                DATETIME(6),
+    PRIMARY KEY (buyer_id),
+    CONSTRAINT uk_buyer_profiles_user UNIQUE (user_id),
+    CONSTRAINT fk_buyer_profiles_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE veterinarian_profiles (
+    vet_id              INT NOT NULL AUTO_INCREMENT,
+    user_id             BIGINT NOT NULL,
+    license_number      VARCHAR(50) NOT NULL,
+    specialization      VARCHAR(100),
+    clinic_name         VARCHAR(100),
+    years_of_experience INT,
+    consultation_fee    DECIMAL(10,2),
+    service_areas       JSON,
+    available_services  JSON,
+    working_hours       JSON,
+    is_available        BIT,
+    rating              DOUBLE,
+    total_reviews       INT,
+    created_at          DATETIME(6),
+    updated_at          DATETIME(6),
+    PRIMARY KEY (vet_id),
+    CONSTRAINT uk_veterinarian_profiles_user UNIQUE (user_id),
+    CONSTRAINT uk_veterinarian_profiles_license UNIQUE (license_number),
+    CONSTRAINT fk_veterinarian_profiles_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE livestock_categories (
+    category_id INT NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(50) NOT NULL,
+    description TEXT,
+    icon        VARCHAR(100),
+    color       VARCHAR(7),
+    is_active   BIT,
+    sort_order  INT,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    PRIMARY KEY (category_id),
+    CONSTRAINT uk_livestock_categories_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE livestock_breeds (
+    breed_id                 INT NOT NULL AUTO_INCREMENT,
+    category_id              INT NOT NULL,
+    name                     VARCHAR(100) NOT NULL,
+    description              TEXT,
+    origin_country           VARCHAR(100),
+    average_weight_male_kg   DECIMAL(6,2),
+    average_weight_female_kg DECIMAL(6,2),
+    average_lifespan_years   INT,
+    maturity_age_months      INT,
+    gestation_period_days    INT,
+    average_litter_size      DOUBLE,
+    primary_purpose          VARCHAR(100),
+    characteristics          TEXT,
+    is_active                BIT,
+    created_at               DATETIME(6),
+    updated_at               DATETIME(6),
+    PRIMARY KEY (breed_id),
+    CONSTRAINT fk_livestock_breeds_category FOREIGN KEY (category_id) REFERENCES livestock_categories (category_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE livestock (
+    livestock_id            INT NOT NULL AUTO_INCREMENT,
+    farmer_id               INT NOT NULL,
+    category_id             INT NOT NULL,
+    breed_id                INT NOT NULL,
+    tag_number              VARCHAR(50) NOT NULL,
+    name                    VARCHAR(100),
+    gender                  ENUM('MALE','FEMALE') NOT NULL,
+    date_of_birth           DATE,
+    estimated_age_months    INT,
+    weight_kg               DECIMAL(6,2),
+    color                   VARCHAR(50),
+    health_status           ENUM('HEALTHY','SICK','RECOVERING','DECEASED'),
+    acquisition_date        DATE NOT NULL,
+    acquisition_method      ENUM('BORN_ON_FARM','PURCHASED','GIFT','INHERITED') NOT NULL,
+    acquisition_cost        DECIMAL(10,2),
+    current_value           DECIMAL(10,2),
+    mother_id               INT,
+    father_id               INT,
+    location_on_farm        VARCHAR(100),
+    identification_marks    TEXT,
+    microchip_number        VARCHAR(50),
+    insurance_policy_number VARCHAR(50),
+    insurance_value         DECIMAL(10,2),
+    is_for_sale             BIT,
+    sale_price              DECIMAL(10,2),
+    notes                   TEXT,
+    images                  JSON,
+    created_at              DATETIME(6),
+    updated_at              DATETIME(6),
+    PRIMARY KEY (livestock_id),
+    CONSTRAINT fk_livestock_farmer FOREIGN KEY (farmer_id) REFERENCES farmer_profiles (farmer_id),
+    CONSTRAINT fk_livestock_category FOREIGN KEY (category_id) REFERENCES livestock_categories (category_id),
+    CONSTRAINT fk_livestock_breed FOREIGN KEY (breed_id) REFERENCES livestock_breeds (breed_id),
+    CONSTRAINT fk_livestock_mother FOREIGN KEY (mother_id) REFERENCES livestock (livestock_id),
+    CONSTRAINT fk_livestock_father FOREIGN KEY (father_id) REFERENCES livestock (livestock_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE health_records (
+    health_record_id       INT NOT NULL AUTO_INCREMENT,
+    livestock_id           INT NOT NULL,
+    vet_id                 INT,
+    examination_date       DATE NOT NULL,
+    examination_type       ENUM('ROUTINE_CHECKUP','SICK_VISIT','FOLLOW_UP','EMERGENCY') NOT NULL,
+    temperature_celsius    DECIMAL(4,2),
+    heart_rate_bpm         INT,
+    respiratory_rate_bpm   INT,
+    weight_kg              DECIMAL(6,2),
+    body_condition_score   INT,
+    symptoms               JSON,
+    diagnosis              TEXT,
+    treatment_given        TEXT,
+    medications_prescribed JSON,
+    recommendations        TEXT,
+    follow_up_required     BIT,
+    follow_up_date         DATE,
+    consultation_fee       DECIMAL(8,2),
+    status                 ENUM('ACTIVE','RESOLVED','ONGOING'),
+    created_at             DATETIME(6),
+    updated_at             DATETIME(6),
+    PRIMARY KEY (health_record_id),
+    CONSTRAINT fk_health_records_livestock FOREIGN KEY (livestock_id) REFERENCES livestock (livestock_id),
+    CONSTRAINT fk_health_records_vet FOREIGN KEY (vet_id) REFERENCES veterinarian_profiles (vet_id)
+) ENGINE = InnoDB;
+
+CREATE TABLE livestock_listings (
+    listing_id              INT NOT NULL AUTO_INCREMENT,
+    livestock_id            INT NOT NULL,
+    farmer_id               INT NOT NULL,
+    title                   VARCHAR(200) NOT NULL,
+    description             TEXT NOT NULL,
+    asking_price            DECIMAL(10,2) NOT NULL,
+    minimum_price           DECIMAL(10,2),
+    negotiable              BIT,
+    listing_status          ENUM('ACTIVE','SOLD','WITHDRAWN','EXPIRED'),
+    listing_type            ENUM('SALE','AUCTION'),
+    auction_end_date        DATETIME(6),
+    featured                BIT,
+    view_count              INT,
+    contact_count           INT,
+    images                  JSON,
+    video_url               VARCHAR(500),
+    location_visible        BIT,
+    delivery_available      BIT,
+    delivery_cost           DECIMAL(8,2),
+    certification_documents JSON,
+    health_certificate_url  VARCHAR(500),
+    created_at              DATETIME(6),
+    updated_at              DATETIME(6),
+    expires_at              DATETIME(6),
+    PRIMARY KEY (listing_id),
+    CONSTRAINT fk_livestock_listings_livestock FOREIGN KEY (livestock_id) REFERENCES livestock (livestock_id),
+    CONSTRAINT fk_livestock_listings_farmer FOREIGN KEY (farmer_id) REFERENCES farmer_profiles (farmer_id)
+) ENGINE = InnoDB;
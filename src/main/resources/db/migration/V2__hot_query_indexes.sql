@@ -0,0 +1,35 @@
+-- Composite indexes for the access patterns in UserRepository, HealthRecordRepository and
+-- LivestockRepository, plus the refresh_tokens table used by DatabaseRefreshTokenStore.
+-- None of these exist in the V1 baseline, which is the schema from before they were introduced.
+
+-- findByEmailAndActive (login, JWT principal lookup)
+CREATE INDEX idx_users_email_active ON users (email, is_active);
+
+-- findByLivestock_LivestockId, findRecentRecordsByLivestock, findLatestByLivestock:
+-- equality on livestock_id, range/sort on examination_date
+CREATE INDEX idx_health_records_livestock_date ON health_records (livestock_id, examination_date);
+
+-- findByFollowUpRequiredTrue, upcoming follow-ups ordered by date
+CREATE INDEX idx_health_records_follow_up ON health_records (follow_up_required, follow_up_date);
+
+-- findByExaminationDateAfter / Between (vet dashboard recent records)
+CREATE INDEX idx_health_records_examination_date ON health_records (examination_date);
+
+-- findByLivestock_LivestockIdAndStatus
+CREATE INDEX idx_health_records_livestock_status ON health_records (livestock_id, status);
+
+-- Owner-scoped livestock lookups (findByIdAndFarmerId, farmer list/search/filter and their scroll variants)
+CREATE INDEX idx_livestock_farmer_id ON livestock (farmer_id, livestock_id);
+CREATE INDEX idx_livestock_farmer_tag ON livestock (farmer_id, tag_number);
+CREATE INDEX idx_livestock_farmer_health ON livestock (farmer_id, health_status);
+CREATE INDEX idx_livestock_farmer_name ON livestock (farmer_id, name);
+
+-- Refresh tokens, stored by hash (RefreshToken); databases that ran with ddl-auto=update may already have it
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    token_hash VARCHAR(64) NOT NULL,
+    user_id    BIGINT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (token_hash),
+    INDEX idx_refresh_tokens_expires_at (expires_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,70 @@
+-- Move HealthRecord symptoms/medications out of JSON columns into element-collection tables
+-- so symptom lookups are index-driven and reads no longer parse JSON per row.
+--
+-- Terms longer than the new columns (100 / 200 characters) are never truncated: the check below
+-- copies only the over-long ones into a strict temporary table, so the migration stops before any
+-- change with "Data too long for column 'symptom_longer_than_100_chars'" (or the medication one).
+-- List the offending rows with:
+--   SELECT hr.health_record_id, jt.value FROM health_records hr,
+--     JSON_TABLE(hr.symptoms, '$[*]' COLUMNS (value VARCHAR(1000) PATH '$')) jt
+--   WHERE CHAR_LENGTH(TRIM(jt.value)) > 100;
+-- (likewise medications_prescribed with > 200), shorten them, then re-run.
+
+SET @v3_saved_sql_mode = @@SESSION.sql_mode;
+SET SESSION sql_mode = CONCAT_WS(',', NULLIF(@@SESSION.sql_mode, ''), 'STRICT_ALL_TABLES');
+
+CREATE TEMPORARY TABLE v3_term_length_check (
+    symptom_longer_than_100_chars    VARCHAR(100),
+    medication_longer_than_200_chars VARCHAR(200)
+);
+
+INSERT INTO v3_term_length_check (symptom_longer_than_100_chars)
+SELECT TRIM(jt.value)
+FROM health_records hr,
+     JSON_TABLE(hr.symptoms, '$[*]' COLUMNS (value VARCHAR(1000) PATH '$')) jt
+WHERE hr.symptoms IS NOT NULL AND CHAR_LENGTH(TRIM(jt.value)) > 100;
+
+INSERT INTO v3_term_length_check (medication_longer_than_200_chars)
+SELECT TRIM(jt.value)
+FROM health_records hr,
+     JSON_TABLE(hr.medications_prescribed, '$[*]' COLUMNS (value VARCHAR(1000) PATH '$')) jt
+WHERE hr.medications_prescribed IS NOT NULL AND CHAR_LENGTH(TRIM(jt.value)) > 200;
+
+DROP TEMPORARY TABLE v3_term_length_check;
+SET SESSION sql_mode = @v3_saved_sql_mode;
+
+CREATE TABLE health_record_symptoms (
+    health_record_id INT NOT NULL,
+    position         INT NOT NULL,
+    symptom          VARCHAR(100) NOT NULL,
+    PRIMARY KEY (health_record_id, position),
+    INDEX idx_health_record_symptoms_symptom (symptom, health_record_id),
+    CONSTRAINT fk_health_record_symptoms_record FOREIGN KEY (health_record_id)
+        REFERENCES health_records (health_record_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+CREATE TABLE health_record_medications (
+    health_record_id INT NOT NULL,
+    position         INT NOT NULL,
+    medication       VARCHAR(200) NOT NULL,
+    PRIMARY KEY (health_record_id, position),
+    INDEX idx_health_record_medications_medication (medication, health_record_id),
+    CONSTRAINT fk_health_record_medications_record FOREIGN KEY (health_record_id)
+        REFERENCES health_records (health_record_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+INSERT INTO health_record_symptoms (health_record_id, position, symptom)
+SELECT hr.health_record_id, jt.ord - 1, TRIM(jt.value)
+FROM health_records hr,
+     JSON_TABLE(hr.symptoms, '$[*]' COLUMNS (ord FOR ORDINALITY, value VARCHAR(1000) PATH '$')) jt
+WHERE hr.symptoms IS NOT NULL AND jt.value IS NOT NULL;
+
+INSERT INTO health_record_medications (health_record_id, position, medication)
+SELECT hr.health_record_id, jt.ord - 1, TRIM(jt.value)
+FROM health_records hr,
+     JSON_TABLE(hr.medications_prescribed, '$[*]' COLUMNS (ord FOR ORDINALITY, value VARCHAR(1000) PATH '$')) jt
+WHERE hr.medications_prescribed IS NOT NULL AND jt.value IS NOT NULL;
+
+ALTER TABLE health_records
+    DROP COLUMN symptoms,
+    DROP COLUMN medications_prescribed;
@@ -0,0 +1,31 @@
+-- Per-livestock health record aggregates, kept in step with health_records by HealthSummaryService.
+
+CREATE TABLE livestock_health_summary (
+    livestock_id            INT NOT NULL,
+    total_records           BIGINT NOT NULL DEFAULT 0,
+    active_records          BIGINT NOT NULL DEFAULT 0,
+    resolved_records        BIGINT NOT NULL DEFAULT 0,
+    ongoing_records         BIGINT NOT NULL DEFAULT 0,
+    weight_sum_kg           DECIMAL(14,2) NOT NULL DEFAULT 0,
+    weight_count            BIGINT NOT NULL DEFAULT 0,
+    latest_examination_date DATE,
+    updated_at              DATETIME(6),
+    PRIMARY KEY (livestock_id),
+    CONSTRAINT fk_livestock_health_summary_livestock FOREIGN KEY (livestock_id)
+        REFERENCES livestock (livestock_id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+INSERT INTO livestock_health_summary (livestock_id, total_records, active_records, resolved_records,
+                                      ongoing_records, weight_sum_kg, weight_count,
+                                      latest_examination_date, updated_at)
+SELECT livestock_id,
+       COUNT(*),
+       SUM(status = 'ACTIVE'),
+       SUM(status = 'RESOLVED'),
+       SUM(status = 'ONGOING'),
+       COALESCE(SUM(weight_kg), 0),
+       COUNT(weight_kg),
+       MAX(examination_date),
+       NOW(6)
+FROM health_records
+GROUP BY livestock_id;
@@ -0,0 +1,7 @@
+-- Access paths for the marketplace listing subsystem (LivestockListingRepository, ListingIndex).
+
+-- Index snapshot and expiry sweep: ACTIVE listings, ordered by expiry
+CREATE INDEX idx_listings_status_expires ON livestock_listings (listing_status, expires_at);
+
+-- A farmer's own listings, newest first
+CREATE INDEX idx_listings_farmer_id ON livestock_listings (farmer_id, listing_id);
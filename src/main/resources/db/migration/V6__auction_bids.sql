@@ -0,0 +1,16 @@
+-- Append-only bid log for AUCTION listings, written in batches by AuctionBidWriter.
+-- bid_number is the per-listing sequence assigned by the auction's lane, so a retried batch
+-- (INSERT IGNORE) can never record the same bid twice.
+
+CREATE TABLE auction_bids (
+    bid_id         BIGINT NOT NULL AUTO_INCREMENT,
+    listing_id     INT NOT NULL,
+    bid_number     INT NOT NULL,
+    bidder_user_id BIGINT NOT NULL,
+    amount         DECIMAL(10,2) NOT NULL,
+    placed_at      DATETIME(6) NOT NULL,
+    PRIMARY KEY (bid_id),
+    CONSTRAINT uk_auction_bids_listing_number UNIQUE (listing_id, bid_number),
+    CONSTRAINT fk_auction_bids_listing FOREIGN KEY (listing_id) REFERENCES livestock_listings (listing_id),
+    CONSTRAINT fk_auction_bids_bidder FOREIGN KEY (bidder_user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
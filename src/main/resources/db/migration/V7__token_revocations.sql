@@ -0,0 +1,10 @@
+-- Shared deny-list for security.deny-list.store=database: one row per revoked user, holding the
+-- revocation time in epoch millis. Every node polls rows newer than its last poll and prunes rows
+-- older than the retention window.
+
+CREATE TABLE token_revocations (
+    email      VARCHAR(255) NOT NULL,
+    revoked_at BIGINT NOT NULL,
+    PRIMARY KEY (email),
+    INDEX idx_token_revocations_revoked_at (revoked_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,49 @@
+package com.farmtech.livestock.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventStreamTicketsTest {
+
+    private final Authentication vet = new UsernamePasswordAuthenticationToken(
+            "vet@example.com", null, List.of(new SimpleGrantedAuthority("VETERINARIAN")));
+
+    @Test
+    void ticketIsRedeemedOnce() {
+        EventStreamTickets tickets = new EventStreamTickets(30, 100);
+        String ticket = tickets.issue(vet);
+
+        assertSame(vet, tickets.redeem(ticket));
+        assertNull(tickets.redeem(ticket));
+        assertNull(tickets.redeem("not-a-ticket"));
+        assertNull(tickets.redeem(null));
+        assertEquals(1L, tickets.getStats().get("ticketsRedeemed"));
+        assertEquals(3L, tickets.getStats().get("ticketsRefused"));
+    }
+
+    @Test
+    void expiredTicketIsRefused() {
+        EventStreamTickets tickets = new EventStreamTickets(0, 100);
+        assertNull(tickets.redeem(tickets.issue(vet)));
+    }
+
+    @Test
+    void oldestTicketsAreShedWhenFull() {
+        EventStreamTickets tickets = new EventStreamTickets(30, 10);
+        List<String> issued = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            issued.add(tickets.issue(vet));
+        }
+
+        assertTrue(tickets.getStats().get("ticketsPending") <= 10);
+        assertNotNull(tickets.redeem(issued.get(10)));
+        assertEquals(11L, tickets.getStats().get("ticketsIssued"));
+    }
+}
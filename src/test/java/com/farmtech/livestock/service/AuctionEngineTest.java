@@ -0,0 +1,193 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.AuctionStateDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuctionEngineTest {
+
+    private static final int LISTING_ID = 42;
+    private static final long SELLER_ID = 7L;
+    private static final BigDecimal INCREMENT = new BigDecimal("100");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AuctionBidWriter bidWriter = mock(AuctionBidWriter.class);
+    private final List<Object[]> appended = Collections.synchronizedList(new ArrayList<>());
+    private AuctionEngine engine;
+
+    @AfterEach
+    void shutdown() {
+        if (engine != null) engine.shutdown();
+    }
+
+    @Test
+    void concurrentBiddersGetGapFreeIncreasingBids() throws Exception {
+        givenAuctionEndingAt(LocalDateTime.now().plusHours(1));
+        engine = engine(4, 0);
+
+        int bidders = 16;
+        int attemptsEach = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(bidders);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> acceptedCounts = new ArrayList<>();
+        for (int b = 0; b < bidders; b++) {
+            long bidderId = 1000L + b;
+            acceptedCounts.add(pool.submit(() -> {
+                start.await();
+                int accepted = 0;
+                for (int i = 0; i < attemptsEach; i++) {
+                    // Bid on a possibly stale view so that concurrent bidders collide on the floor
+                    BigDecimal floor = engine.getState(LISTING_ID).join().getMinimumNextBid();
+                    BigDecimal amount = floor.add(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(3) * 50L));
+                    try {
+                        engine.placeBid(LISTING_ID, bidderId, amount).join();
+                        accepted++;
+                    } catch (CompletionException e) {
+                        assertTrue(e.getCause().getMessage().startsWith("Bid must be at least"), e.getCause().getMessage());
+                    }
+                }
+                return accepted;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> count : acceptedCounts) {
+            total += count.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertTrue(total > 0);
+        assertEquals(total, appended.size());
+        BigDecimal previous = null;
+        for (int i = 0; i < appended.size(); i++) {
+            Object[] bid = appended.get(i);
+            assertEquals(LISTING_ID, bid[0]);
+            assertEquals(i + 1, bid[1], "bid numbers must be gap-free");
+            BigDecimal amount = (BigDecimal) bid[3];
+            if (previous != null) {
+                assertTrue(amount.compareTo(previous.add(INCREMENT)) >= 0,
+                        "bid " + (i + 1) + " of " + amount + " does not beat " + previous + " by the increment");
+            }
+            previous = amount;
+        }
+        AuctionStateDto state = engine.getState(LISTING_ID).join();
+        assertEquals(total, state.getBidCount());
+        assertEquals(0, previous.compareTo(state.getHighBid()));
+    }
+
+    @Test
+    void rejectsBidsOnceSealed() throws Exception {
+        LocalDateTime endsAt = LocalDateTime.now().plusNanos(300_000_000);
+        givenAuctionEndingAt(endsAt);
+        engine = engine(1, 0);
+        engine.placeBid(LISTING_ID, 1000L, new BigDecimal("500")).join();
+
+        Thread.sleep(Math.max(0, Duration.between(LocalDateTime.now(), endsAt).toMillis() + 20));
+        assertTrue(engine.sealDue(new int[]{LISTING_ID}));
+
+        CompletionException rejected = assertThrows(CompletionException.class,
+                () -> engine.placeBid(LISTING_ID, 1001L, new BigDecimal("10000")).join());
+        assertEquals("This auction is not open for bidding", rejected.getCause().getMessage());
+        assertEquals(1, appended.size());
+        assertEquals(1L, engine.getStats().get("rejectedBids"));
+    }
+
+    @Test
+    void rejectsSellerAndLowBids() {
+        givenAuctionEndingAt(LocalDateTime.now().plusHours(1));
+        engine = engine(1, 0);
+
+        assertThrows(CompletionException.class, () -> engine.placeBid(LISTING_ID, SELLER_ID, new BigDecimal("500")).join());
+        engine.placeBid(LISTING_ID, 1000L, new BigDecimal("500")).join();
+        assertThrows(CompletionException.class, () -> engine.placeBid(LISTING_ID, 1001L, new BigDecimal("599.99")).join());
+        assertEquals(2, engine.placeBid(LISTING_ID, 1001L, new BigDecimal("600")).join().getBidCount());
+        assertEquals(2, appended.size());
+    }
+
+    @Test
+    void bidInsideExtensionWindowMovesEnd() {
+        LocalDateTime endsAt = LocalDateTime.now().plusSeconds(60);
+        givenAuctionEndingAt(endsAt);
+        engine = engine(1, 120);
+
+        LocalDateTime before = LocalDateTime.now();
+        AuctionStateDto state = engine.placeBid(LISTING_ID, 1000L, new BigDecimal("500")).join();
+
+        assertFalse(state.getEndsAt().isBefore(before.plusSeconds(120)));
+        assertTrue(state.getEndsAt().isAfter(endsAt));
+        verify(bidWriter).extend(LISTING_ID, state.getEndsAt());
+        assertEquals(1L, engine.getStats().get("extensions"));
+    }
+
+    @Test
+    void bidOutsideExtensionWindowKeepsEnd() {
+        LocalDateTime endsAt = LocalDateTime.now().plusHours(1).withNano(0);
+        givenAuctionEndingAt(endsAt);
+        engine = engine(1, 120);
+
+        AuctionStateDto state = engine.placeBid(LISTING_ID, 1000L, new BigDecimal("500")).join();
+
+        assertEquals(endsAt, state.getEndsAt());
+        verify(bidWriter, never()).extend(anyInt(), any());
+    }
+
+    @Test
+    void extensionShorterThanWindowNeverPullsEndIn() {
+        LocalDateTime endsAt = LocalDateTime.now().plusSeconds(300).withNano(0);
+        givenAuctionEndingAt(endsAt);
+        engine = engine(1, 600, 60);
+
+        AuctionStateDto state = engine.placeBid(LISTING_ID, 1000L, new BigDecimal("500")).join();
+
+        assertEquals(endsAt, state.getEndsAt());
+        verify(bidWriter, never()).extend(anyInt(), any());
+        assertEquals(0L, engine.getStats().get("extensions"));
+    }
+
+    private AuctionEngine engine(int lanes, long extensionSeconds) {
+        return engine(lanes, extensionSeconds, extensionSeconds);
+    }
+
+    private AuctionEngine engine(int lanes, long extensionWindowSeconds, long extensionSeconds) {
+        return new AuctionEngine(jdbcTemplate, bidWriter, mock(ApplicationEventPublisher.class),
+                lanes, 10_000, INCREMENT, extensionWindowSeconds, extensionSeconds);
+    }
+
+    // An ACTIVE auction with no stored bids; the writer accepts every append and records it
+    @SuppressWarnings("unchecked")
+    private void givenAuctionEndingAt(LocalDateTime endsAt) {
+        when(jdbcTemplate.query(startsWith("SELECT ll.listing_status"), any(RowMapper.class), eq(LISTING_ID)))
+                .thenAnswer(invocation -> {
+                    ResultSet rs = mock(ResultSet.class);
+                    when(rs.getString("listing_status")).thenReturn("ACTIVE");
+                    when(rs.getString("listing_type")).thenReturn("AUCTION");
+                    when(rs.getTimestamp("auction_end_date")).thenReturn(Timestamp.valueOf(endsAt));
+                    when(rs.getTimestamp("expires_at")).thenReturn(Timestamp.valueOf(endsAt.plusDays(1)));
+                    when(rs.getBigDecimal("minimum_price")).thenReturn(new BigDecimal("1000"));
+                    when(rs.getLong("seller_user_id")).thenReturn(SELLER_ID);
+                    RowMapper<Object> mapper = invocation.getArgument(1);
+                    return List.of(mapper.mapRow(rs, 0));
+                });
+        when(bidWriter.append(anyInt(), anyInt(), anyLong(), any(), any())).thenAnswer(invocation -> {
+            appended.add(invocation.getArguments());
+            return true;
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.FarmerProfileDto;
+import com.farmtech.livestock.dto.SimpleLivestockDto;
+import com.farmtech.livestock.model.FarmerProfile;
+import com.farmtech.livestock.model.Livestock;
+import com.farmtech.livestock.model.LivestockBreed;
+import com.farmtech.livestock.model.LivestockCategory;
+import com.farmtech.livestock.model.User;
+import com.farmtech.livestock.model.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against an in-memory H2 schema generated from the entities; Flyway's migrations are MySQL-only
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(FarmerService.class)
+class FarmerServiceTest {
+
+    private static final int FARMERS_WITH_PROFILE = 5;
+    private static final int ANIMALS_PER_FARMER = 3;
+
+    @Autowired
+    private FarmerService farmerService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        UserRole farmerRole = role(UserRole.RoleName.FARMER);
+        UserRole buyerRole = role(UserRole.RoleName.BUYER);
+
+        LivestockCategory cattle = new LivestockCategory();
+        cattle.setName("Cattle");
+        entityManager.persist(cattle);
+        LivestockBreed friesian = new LivestockBreed();
+        friesian.setCategory(cattle);
+        friesian.setName("Friesian");
+        entityManager.persist(friesian);
+
+        for (int f = 1; f <= FARMERS_WITH_PROFILE; f++) {
+            FarmerProfile profile = new FarmerProfile();
+            profile.setUser(user("farmer" + f, farmerRole));
+            profile.setFarmName("Farm " + f);
+            entityManager.persist(profile);
+            for (int a = 1; a <= ANIMALS_PER_FARMER; a++) {
+                entityManager.persist(animal(profile, cattle, friesian, "F" + f + "-" + a));
+            }
+        }
+        // Listed last (ordered by user id) without a profile, and a buyer that must not be listed
+        user("newfarmer", farmerRole);
+        user("buyer", buyerRole);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageIsLoadedWithTwoStatements() {
+        List<FarmerProfileDto> farmers = farmerService.getAllFarmers(0, 50);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(FARMERS_WITH_PROFILE + 1, farmers.size());
+        for (FarmerProfileDto farmer : farmers.subList(0, FARMERS_WITH_PROFILE)) {
+            assertEquals(ANIMALS_PER_FARMER, farmer.getLivestock().size());
+            SimpleLivestockDto animal = farmer.getLivestock().get(0);
+            assertEquals("Cattle", animal.getCategoryName());
+            assertEquals("Friesian", animal.getBreedName());
+        }
+        FarmerProfileDto withoutProfile = farmers.get(FARMERS_WITH_PROFILE);
+        assertEquals("newfarmer@example.com", withoutProfile.getEmail());
+        assertNull(withoutProfile.getFarmerId());
+        assertTrue(withoutProfile.getLivestock().isEmpty());
+    }
+
+    @Test
+    void everyPageIsLoadedWithTwoStatements() {
+        List<FarmerProfileDto> first = farmerService.getAllFarmers(0, 3);
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        List<FarmerProfileDto> second = farmerService.getAllFarmers(1, 3);
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        assertEquals(List.of("farmer1@example.com", "farmer2@example.com", "farmer3@example.com"),
+                first.stream().map(FarmerProfileDto::getEmail).toList());
+        assertEquals(List.of("farmer4@example.com", "farmer5@example.com", "newfarmer@example.com"),
+                second.stream().map(FarmerProfileDto::getEmail).toList());
+        assertTrue(second.stream().limit(2).allMatch(f -> f.getLivestock().size() == ANIMALS_PER_FARMER));
+    }
+
+    private UserRole role(UserRole.RoleName name) {
+        UserRole role = new UserRole();
+        role.setRoleName(name);
+        return entityManager.persist(role);
+    }
+
+    private User user(String username, UserRole role) {
+        User user = new User(username, username + "@example.com", "secret-password", role);
+        user.setFirstName(username);
+        return entityManager.persist(user);
+    }
+
+    private Livestock animal(FarmerProfile farmer, LivestockCategory category, LivestockBreed breed, String tag) {
+        Livestock animal = new Livestock();
+        animal.setFarmer(farmer);
+        animal.setCategory(category);
+        animal.setBreed(breed);
+        animal.setTagNumber(tag);
+        animal.setName("Animal " + tag);
+        animal.setGender(Livestock.Gender.FEMALE);
+        animal.setAcquisitionDate(LocalDate.now());
+        animal.setAcquisitionMethod(Livestock.AcquisitionMethod.BORN_ON_FARM);
+        return animal;
+    }
+}
@@ -0,0 +1,153 @@
+package com.farmtech.livestock.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingExpiryWheelTest {
+
+    // Level spans of the wheel: 2^8 one-second slots, then 2^14, 2^20, 2^26 and 2^32 seconds
+    private static final int[] LEVEL_SPANS = {1 << 8, 1 << 14, 1 << 20, 1 << 26};
+
+    @Test
+    void firesEachDeadlineOnceOnItsSecond() {
+        Random random = new Random(42);
+        int start = 1_000_003;
+        Map<Integer, Integer> expected = new HashMap<>();
+        ListingExpiryScheduler.TimingWheel wheel = new ListingExpiryScheduler.TimingWheel(start);
+        for (int id = 1; id <= 20_000; id++) {
+            int deadline = start + random.nextInt(1 << 16);
+            wheel.add(id, deadline);
+            expected.put(id, deadline);
+        }
+        assertFiresOnSchedule(wheel, expected, start + (1 << 16));
+    }
+
+    @Test
+    void cascadesThroughEveryLevel() {
+        // Start just below a level-4 boundary so every level wraps during the run
+        int start = (1 << 27) - 300;
+        Map<Integer, Integer> expected = new HashMap<>();
+        ListingExpiryScheduler.TimingWheel wheel = new ListingExpiryScheduler.TimingWheel(start);
+        int id = 1;
+        for (int span : LEVEL_SPANS) {
+            for (int offset = -2; offset <= 2; offset++) {
+                int deadline = start + span + offset;
+                wheel.add(id, deadline);
+                expected.put(id++, deadline);
+            }
+        }
+        // Deadlines that straddle the boundaries the wheel crosses on its way
+        for (int boundary = 1; boundary <= 4; boundary++) {
+            int aligned = ((start >>> (8 + 6 * (boundary - 1))) + 1) << (8 + 6 * (boundary - 1));
+            for (int offset = -1; offset <= 1; offset++) {
+                wheel.add(id, aligned + offset);
+                expected.put(id++, aligned + offset);
+            }
+        }
+        assertFiresOnSchedule(wheel, expected, start + (1 << 26) + 3);
+    }
+
+    @Test
+    void firesPastDeadlinesOnTheNextTick() {
+        int start = 5_000;
+        ListingExpiryScheduler.TimingWheel wheel = new ListingExpiryScheduler.TimingWheel(start);
+        wheel.add(1, start - 1);
+        wheel.add(2, 0);
+        wheel.add(3, start);
+        Map<Integer, Integer> fired = new HashMap<>();
+        wheel.tick((listingId, deadline) -> assertNull(fired.put(listingId, deadline)));
+        assertEquals(Map.of(1, start - 1, 2, 0, 3, start), fired);
+        assertEquals(0, wheel.entries);
+    }
+
+    @Test
+    void schedulesEntriesAddedWhileRunning() {
+        Random random = new Random(7);
+        int start = (1 << 14) - 1_000;
+        int end = start + (1 << 21);
+        ListingExpiryScheduler.TimingWheel wheel = new ListingExpiryScheduler.TimingWheel(start);
+        Map<Integer, Integer> pending = new HashMap<>();
+        int[] nextId = {1};
+        while (wheel.base < end) {
+            if (random.nextInt(64) == 0) {
+                int delta = random.nextInt(8) == 0 ? -random.nextInt(500) : random.nextInt(1 << (8 + random.nextInt(13)));
+                int deadline = wheel.base + delta;
+                wheel.add(nextId[0], deadline);
+                pending.put(nextId[0]++, Math.max(deadline, wheel.base));
+            }
+            int second = wheel.base;
+            wheel.tick((listingId, deadline) -> {
+                Integer due = pending.remove(listingId);
+                assertEquals(due, (Integer) second, "listing " + listingId + " fired on the wrong second");
+            });
+        }
+        pending.values().forEach(due -> assertTrue(due >= end, "deadline " + due + " was missed"));
+        assertEquals(pending.size(), wheel.entries);
+    }
+
+    @Test
+    void mapSurvivesRemovePutChurn() {
+        Random random = new Random(11);
+        ListingExpiryScheduler.IntIntMap map = new ListingExpiryScheduler.IntIntMap();
+        Map<Integer, Integer> reference = new HashMap<>();
+        for (int op = 0; op < 2_000_000; op++) {
+            // A narrow key range keeps probe runs long and makes removals shift entries back
+            int key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                reference.remove(key);
+            } else {
+                map.put(key, op);
+                reference.put(key, op);
+            }
+            if (op % 1_000 == 0) {
+                assertEquals(reference.size(), map.size);
+            }
+        }
+        for (int key = 0; key <= 5_001; key++) {
+            assertEquals(reference.getOrDefault(key, ListingExpiryScheduler.IntIntMap.MISSING), map.get(key), "key " + key);
+        }
+        map.remove(0);
+        assertEquals(reference.size(), map.size);
+    }
+
+    @Test
+    void mapKeepsCollidingKeysThroughResize() {
+        ListingExpiryScheduler.IntIntMap map = new ListingExpiryScheduler.IntIntMap();
+        for (int i = 1; i <= 100_000; i++) {
+            map.put(i << 12, i);
+        }
+        for (int i = 1; i <= 100_000; i += 2) {
+            map.remove(i << 12);
+        }
+        assertEquals(50_000, map.size);
+        for (int i = 1; i <= 100_000; i++) {
+            assertEquals(i % 2 == 0 ? i : ListingExpiryScheduler.IntIntMap.MISSING, map.get(i << 12));
+        }
+    }
+
+    // Ticks through end and checks every id fired exactly once, on max(deadline, start)
+    private static void assertFiresOnSchedule(ListingExpiryScheduler.TimingWheel wheel, Map<Integer, Integer> expected, int end) {
+        int start = wheel.base;
+        Map<Integer, Integer> firedAt = new HashMap<>();
+        while (wheel.base <= end) {
+            int second = wheel.base;
+            wheel.tick((listingId, deadline) -> {
+                assertEquals(expected.get(listingId), (Integer) deadline);
+                assertNull(firedAt.put(listingId, second), "listing " + listingId + " fired twice");
+            });
+        }
+        assertEquals(expected.size(), firedAt.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(Math.max(entry.getValue(), start), firedAt.get(entry.getKey()), "listing " + entry.getKey());
+        }
+        assertEquals(0, wheel.entries);
+    }
+}
@@ -0,0 +1,281 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.FacetCount;
+import com.farmtech.livestock.dto.ListingBrowseResult;
+import com.farmtech.livestock.dto.ListingDto;
+import com.farmtech.livestock.dto.ListingSearchRequest;
+import com.farmtech.livestock.event.ListingChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ListingIndexTest {
+
+    // Columns ListingIndex reads by position rather than by label
+    private static final Map<Integer, String> INDEXED_COLUMNS =
+            Map.of(19, "livestock_name", 20, "category_id", 21, "category_name", 22, "breed_name");
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    // The listing rows "in MySQL", read through one ResultSet positioned on the current row
+    private final Map<Integer, Map<String, Object>> table = new LinkedHashMap<>();
+    private Map<String, Object> currentRow;
+    private ResultSet rs;
+    private ListingIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // A plain proxy rather than a mock: the latency test pushes 50,000 rows through it
+        rs = (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object column = args[0];
+                    Object value = currentRow.get(column instanceof Integer ? INDEXED_COLUMNS.get(column) : column);
+                    Class<?> type = method.getReturnType();
+                    if (value != null) return value;
+                    return type == boolean.class ? false : type == int.class ? 0 : null;
+                });
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map<String, Object> row : table.values()) {
+                currentRow = row;
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(contains("ll.listing_status = 'ACTIVE'"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.query(contains("ll.listing_id = ?"), any(RowMapper.class), any())).thenAnswer(invocation -> {
+            currentRow = table.get((Integer) invocation.getArgument(2));
+            if (currentRow == null) return List.of();
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            return List.of(mapper.mapRow(rs, 0));
+        });
+        index = new ListingIndex(jdbcTemplate, new long[]{0, 5000, 10000});
+    }
+
+    @Test
+    void facetsAreCountedWithoutTheirOwnFilter() {
+        put(1, 1, "Nakuru", "4000", false, 10);
+        put(2, 1, "Kiambu", "6000", false, 20);
+        put(3, 2, "Nakuru", "12000", false, 30);
+        put(4, 2, "Nakuru", "7000", false, 40);
+        put(5, 3, null, "7000", false, 50);
+        index.rebuild();
+
+        ListingSearchRequest request = new ListingSearchRequest();
+        request.setCategoryId(List.of(2));
+        request.setCounty(List.of("nakuru"));
+        ListingBrowseResult result = index.search(request, 50);
+
+        assertEquals(List.of(3, 4), ids(result));
+        // Category ignores the category filter but keeps the county one
+        assertEquals(Map.of("1", 1, "2", 2), counts(result.getFacets().get("category")));
+        // County ignores the county filter but keeps the category one
+        assertEquals(Map.of("Nakuru", 2), counts(result.getFacets().get("county")));
+        // Price buckets are listed in order, empty ones included, under both filters
+        assertEquals(List.of("0-4999", "5000-9999", "10000+"),
+                result.getFacets().get("priceBucket").stream().map(FacetCount::getLabel).collect(Collectors.toList()));
+        assertEquals(Map.of("0", 0, "5000", 1, "10000", 1), counts(result.getFacets().get("priceBucket")));
+    }
+
+    @Test
+    void priceRangeSplitsBoundaryBuckets() {
+        put(1, 1, "Nakuru", "4999.99", false, 10);
+        put(2, 1, "Nakuru", "5000", false, 20);
+        put(3, 1, "Nakuru", "6000.50", false, 30);
+        put(4, 1, "Nakuru", "9999.99", false, 40);
+        put(5, 1, "Nakuru", "10000", false, 50);
+        put(6, 1, "Nakuru", "10500", false, 60);
+        put(7, 1, "Nakuru", "250000", false, 70);
+        index.rebuild();
+
+        ListingSearchRequest request = new ListingSearchRequest();
+        request.setMinPrice(new BigDecimal("6000.50"));
+        request.setMaxPrice(new BigDecimal("10500"));
+        request.setSort("price_asc");
+        assertEquals(List.of(3, 4, 5, 6), ids(index.search(request, 50)));
+
+        request.setMinPrice(new BigDecimal("4999.99"));
+        request.setMaxPrice(null);
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), ids(index.search(request, 50)));
+
+        request.setMinPrice(null);
+        request.setMaxPrice(new BigDecimal("4999.98"));
+        assertEquals(List.of(), ids(index.search(request, 50)));
+    }
+
+    @Test
+    void sortsByPriceAndByFeaturedThenNewest() {
+        put(1, 1, "Nakuru", "7000", false, 10);
+        put(2, 1, "Nakuru", "3000", true, 50);
+        put(3, 1, "Nakuru", "12000", false, 5);
+        put(4, 1, "Nakuru", "3000.01", true, 20);
+        put(5, 1, "Nakuru", "9000", false, 30);
+        index.rebuild();
+
+        ListingSearchRequest request = new ListingSearchRequest();
+        request.setSort("price_asc");
+        assertEquals(List.of(2, 4, 1, 5, 3), ids(index.search(request, 50)));
+        request.setSort("price_desc");
+        assertEquals(List.of(3, 5, 1, 4, 2), ids(index.search(request, 50)));
+        request.setSort("newest");
+        assertEquals(List.of(4, 2, 3, 1, 5), ids(index.search(request, 50)));
+
+        // Pages are cut from the same order
+        request.setSize(2);
+        request.setPage(1);
+        ListingBrowseResult second = index.search(request, 50);
+        assertEquals(List.of(3, 1), ids(second));
+        assertEquals(5, second.getTotal());
+    }
+
+    @Test
+    void removedSlotsAreReused() {
+        put(1, 1, "Nakuru", "4000", true, 10);
+        put(2, 2, "Kiambu", "6000", false, 20);
+        put(3, 1, "Nakuru", "12000", false, 30);
+        index.rebuild();
+        assertEquals(3L, index.getStats().get("slots"));
+
+        index.onListingChanged(new ListingChangedEvent(1, ListingChangedEvent.Change.WITHDRAWN));
+        put(4, 2, "Mombasa", "8000", false, 1);
+        index.onListingChanged(new ListingChangedEvent(4, ListingChangedEvent.Change.CREATED));
+
+        assertEquals(3L, index.getStats().get("slots"));
+        assertEquals(3L, index.getStats().get("activeListings"));
+        assertTrue(index.find(1).isEmpty());
+        assertEquals("Mombasa", index.find(4).map(ListingDto::getCounty).orElse(null));
+
+        // Nothing of the old occupant is left in the postings the new one reuses
+        ListingSearchRequest request = new ListingSearchRequest();
+        request.setCategoryId(List.of(1));
+        assertEquals(List.of(3), ids(index.search(request, 50)));
+        assertEquals(Map.of("1", 1, "2", 2), counts(index.search(new ListingSearchRequest(), 50).getFacets().get("category")));
+        assertEquals(List.of(4, 2, 3), ids(index.search(new ListingSearchRequest(), 50)));
+    }
+
+    @Test
+    void refreshDropsListingsThatAreNoLongerActive() {
+        put(1, 1, "Nakuru", "4000", false, 10);
+        put(2, 1, "Nakuru", "4000", false, 20);
+        index.rebuild();
+
+        table.get(1).put("listing_status", "SOLD");
+        table.get(2).put("expires_at", Timestamp.valueOf(NOW.minusMinutes(1)));
+        index.onListingChanged(new ListingChangedEvent(1, ListingChangedEvent.Change.UPDATED));
+        index.onListingChanged(new ListingChangedEvent(2, ListingChangedEvent.Change.UPDATED));
+
+        assertEquals(0, index.search(new ListingSearchRequest(), 50).getTotal());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void removalWaitsForARefreshThatReadTheOlderRow() throws Exception {
+        put(1, 1, "Nakuru", "4000", false, 10);
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch withdrawing = new CountDownLatch(1);
+        // CREATED reads the ACTIVE row, then stalls until the WITHDRAWN event is being handled
+        doAnswer(invocation -> {
+            currentRow = table.get(1);
+            RowMapper<Object> mapper = invocation.getArgument(1);
+            List<Object> rows = List.of(mapper.mapRow(rs, 0));
+            read.countDown();
+            withdrawing.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            return rows;
+        }).when(jdbcTemplate).query(contains("ll.listing_id = ?"), any(RowMapper.class), eq(1));
+
+        Thread created = new Thread(() -> index.onListingChanged(new ListingChangedEvent(1, ListingChangedEvent.Change.CREATED)));
+        created.start();
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        table.get(1).put("listing_status", "WITHDRAWN");
+        Thread withdrawn = new Thread(() -> {
+            withdrawing.countDown();
+            index.onListingChanged(new ListingChangedEvent(1, ListingChangedEvent.Change.WITHDRAWN));
+        });
+        withdrawn.start();
+        created.join(5_000);
+        withdrawn.join(5_000);
+
+        assertTrue(index.find(1).isEmpty(), "a stale CREATED read was applied after the WITHDRAWN removal");
+    }
+
+    /**
+     * Rough latency check rather than a benchmark: 50,000 listings, 2,000 random faceted searches,
+     * and a p99 bound loose enough for a loaded CI machine. Each search is a few BitSet passes, so a
+     * regression to per-listing scans or per-query copies of the docs shows up as a large multiple.
+     */
+    @Test
+    void searchP99StaysLowAtFiftyThousandListings() {
+        Random random = new Random(3);
+        String[] counties = {"Nakuru", "Kiambu", "Mombasa", "Kisumu", "Nyeri", "Machakos", "Kajiado", "Meru"};
+        for (int id = 1; id <= 50_000; id++) {
+            put(id, 1 + random.nextInt(12), counties[random.nextInt(counties.length)],
+                    String.valueOf(random.nextInt(300_000)), random.nextInt(20) == 0, random.nextInt(100_000));
+        }
+        index.rebuild();
+
+        long[] nanos = new long[2_000];
+        for (int i = -200; i < nanos.length; i++) {
+            ListingSearchRequest request = new ListingSearchRequest();
+            if (random.nextBoolean()) request.setCategoryId(List.of(1 + random.nextInt(12), 1 + random.nextInt(12)));
+            if (random.nextBoolean()) request.setCounty(List.of(counties[random.nextInt(counties.length)]));
+            if (random.nextBoolean()) request.setMinPrice(BigDecimal.valueOf(random.nextInt(100_000)));
+            if (random.nextBoolean()) request.setMaxPrice(BigDecimal.valueOf(100_000 + random.nextInt(200_000)));
+            request.setSort(new String[]{"newest", "price_asc", "price_desc"}[random.nextInt(3)]);
+            long start = System.nanoTime();
+            index.search(request, 50);
+            // The first 200 searches warm up the JIT and are not measured
+            if (i >= 0) nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p99Millis = nanos[nanos.length * 99 / 100] / 1_000_000;
+        assertTrue(p99Millis < 100, "p99 search latency was " + p99Millis + " ms");
+    }
+
+    private void put(int listingId, int categoryId, String county, String price, boolean featured, int minutesAgo) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("listing_id", listingId);
+        row.put("livestock_id", listingId);
+        row.put("farmer_id", 1);
+        row.put("title", "Listing " + listingId);
+        row.put("asking_price", new BigDecimal(price));
+        row.put("listing_status", "ACTIVE");
+        row.put("listing_type", "SALE");
+        row.put("featured", featured);
+        row.put("created_at", Timestamp.valueOf(NOW.minusMinutes(minutesAgo)));
+        row.put("livestock_name", "Animal " + listingId);
+        row.put("category_id", categoryId);
+        row.put("category_name", "Category " + categoryId);
+        row.put("breed_name", "Breed");
+        row.put("county", county);
+        table.put(listingId, row);
+    }
+
+    private static List<Integer> ids(ListingBrowseResult result) {
+        return result.getItems().stream().map(ListingDto::getListingId).collect(Collectors.toList());
+    }
+
+    private static Map<String, Integer> counts(List<FacetCount> facet) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (FacetCount count : facet) {
+            counts.put(count.getValue(), count.getCount());
+        }
+        return counts;
+    }
+}
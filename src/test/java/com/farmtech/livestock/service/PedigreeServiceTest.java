@@ -0,0 +1,148 @@
+package com.farmtech.livestock.service;
+
+import com.farmtech.livestock.dto.CommonAncestorDto;
+import com.farmtech.livestock.dto.PedigreeEntryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PedigreeServiceTest {
+
+    private static final int FARMER_ID = 1;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private PedigreeService service;
+
+    // livestock_id, mother_id, father_id; 0 is an unknown parent
+    //   1 x 2 -> 3 (dam), 4 (sire); 3 x 4 -> 5; 3 x 99 (another herd) -> 6
+    //   8 x 8 -> 7 (same parent on both links); 10 <-> 11 (a corrupt cycle); 12 unrelated
+    @BeforeEach
+    void setUp() throws Exception {
+        givenHerd(FARMER_ID, new int[][]{
+                {1, 0, 0}, {2, 0, 0}, {3, 1, 2}, {4, 1, 2}, {5, 3, 4}, {6, 3, 99},
+                {7, 8, 8}, {8, 0, 0}, {10, 11, 0}, {11, 10, 0}, {12, 0, 0}});
+        service = new PedigreeService(jdbcTemplate, 10);
+    }
+
+    @Test
+    void childListsCountEachChildOncePerParent() {
+        assertEquals(2, service.countChildren(FARMER_ID, 1));
+        assertEquals(2, service.countChildren(FARMER_ID, 2));
+        assertEquals(2, service.countChildren(FARMER_ID, 3));
+        assertEquals(1, service.countChildren(FARMER_ID, 4));
+        assertEquals(0, service.countChildren(FARMER_ID, 5));
+        assertEquals(0, service.countChildren(FARMER_ID, 404));
+    }
+
+    @Test
+    void ancestorsAreReportedOnceAtTheirShortestDistance() {
+        // 1 and 2 are reachable through both 3 and 4
+        assertEquals(List.of("3:1", "4:1", "1:2", "2:2"),
+                generations(service.getAncestors(FARMER_ID, 5, 5)));
+        assertEquals(List.of("3:1", "4:1"), generations(service.getAncestors(FARMER_ID, 5, 1)));
+    }
+
+    @Test
+    void descendantsAreReportedOnceAtTheirShortestDistance() {
+        // 5 is a grandchild of 1 through both 3 and 4
+        assertEquals(List.of("3:1", "4:1", "5:2", "6:2"),
+                generations(service.getDescendants(FARMER_ID, 1, 5)));
+        assertEquals(List.of("5:1"), generations(service.getDescendants(FARMER_ID, 4, 5)));
+    }
+
+    @Test
+    void commonAncestorsAreOrderedByTotalDistanceThenId() {
+        List<CommonAncestorDto> common = service.getCommonAncestors(FARMER_ID, 5, 6, 5);
+
+        assertEquals(List.of(3, 1, 2), common.stream().map(CommonAncestorDto::getLivestockId).toList());
+        assertEquals(1, common.get(0).getGenerationsFromFirst());
+        assertEquals(1, common.get(0).getGenerationsFromSecond());
+        assertEquals(2, common.get(1).getGenerationsFromFirst());
+        assertEquals(2, common.get(1).getGenerationsFromSecond());
+        assertTrue(service.getCommonAncestors(FARMER_ID, 5, 12, 5).isEmpty());
+    }
+
+    @Test
+    void isAncestorFollowsParentLinksOnly() {
+        assertTrue(service.isAncestor(FARMER_ID, 1, 5));
+        assertTrue(service.isAncestor(FARMER_ID, 4, 5));
+        assertFalse(service.isAncestor(FARMER_ID, 5, 1));
+        assertFalse(service.isAncestor(FARMER_ID, 6, 5));
+        assertFalse(service.isAncestor(FARMER_ID, 404, 5));
+    }
+
+    @Test
+    void isAncestorTerminatesOnACycle() {
+        assertTrue(service.isAncestor(FARMER_ID, 11, 10));
+        assertTrue(service.isAncestor(FARMER_ID, 10, 11));
+        assertFalse(service.isAncestor(FARMER_ID, 12, 10));
+        assertEquals(List.of("11:1"), generations(service.getAncestors(FARMER_ID, 10, 30)));
+    }
+
+    @Test
+    void parentInAnotherHerdIsLeftOut() {
+        assertEquals(List.of("3:1", "1:2", "2:2"), generations(service.getAncestors(FARMER_ID, 6, 5)));
+        assertFalse(service.isAncestor(FARMER_ID, 99, 6));
+        assertThrows(RuntimeException.class, () -> service.getDescendants(FARMER_ID, 99, 5));
+    }
+
+    @Test
+    void sameAnimalAsMotherAndFatherIsOneRelative() {
+        assertEquals(List.of("8:1"), generations(service.getAncestors(FARMER_ID, 7, 5)));
+        assertEquals(List.of("7:1"), generations(service.getDescendants(FARMER_ID, 8, 5)));
+        assertEquals(1, service.countChildren(FARMER_ID, 8));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedHerds() {
+        for (int farmerId = 1; farmerId <= 10; farmerId++) {
+            service.countChildren(farmerId, 1);
+        }
+        // Farmers 1-5 are used again, so 6 is now the least recently used herd
+        for (int farmerId = 1; farmerId <= 5; farmerId++) {
+            service.countChildren(farmerId, 1);
+        }
+        service.countChildren(11, 1);
+        assertEquals(11L, service.getStats().get("loads"));
+        assertEquals(1L, service.getStats().get("evictions"));
+
+        for (int farmerId = 1; farmerId <= 5; farmerId++) {
+            service.countChildren(farmerId, 1);
+        }
+        assertEquals(11L, service.getStats().get("loads"));
+        service.countChildren(6, 1);
+        assertEquals(12L, service.getStats().get("loads"));
+    }
+
+    private void givenHerd(int farmerId, int[][] rows) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt("livestock_id")).thenReturn(row[0]);
+                when(rs.getInt("mother_id")).thenReturn(row[1]);
+                when(rs.getInt("father_id")).thenReturn(row[2]);
+                when(rs.getString("name")).thenReturn("Animal " + row[0]);
+                when(rs.getString("tag_number")).thenReturn("TAG-" + row[0]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(farmerId));
+    }
+
+    private static List<String> generations(List<PedigreeEntryDto> entries) {
+        return entries.stream().map(e -> e.getLivestockId() + ":" + e.getGeneration()).toList();
+    }
+}